@@ -2,9 +2,18 @@ package com.reliaquest.api.config;
 
 import static java.lang.String.format;
 
+import com.reliaquest.api.service.UpstreamRequestRecorder;
+import com.reliaquest.jfr.ContinuousRecording;
+import java.io.IOException;
+import java.text.ParseException;
+import java.time.Duration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.filter.CommonsRequestLoggingFilter;
 
@@ -20,9 +29,57 @@ public class ApiAppConfiguration {
         return filter;
     }
 
+    /**
+     * The read timeout matches the per call timeout of the employee server client, so a call given up on does not
+     * keep its connection and thread busy any longer than that. The message converters are set up right away, as the
+     * builder otherwise creates them on its first build, which is not safe while calls build clients concurrently.
+     * Every call is recorded as a Java Flight Recorder event while a recording runs.
+     */
     @Bean
     public RestClient.Builder restClientBuilder(
-            @Value("${employee.server}") final String server, @Value("${employee.port}") final String port) {
-        return RestClient.builder().baseUrl(format("http://%s:%s", server, port));
+            @Value("${employee.server}") final String server,
+            @Value("${employee.port}") final String port,
+            @Value("${employee.client.connect-timeout:1s}") final Duration connectTimeout,
+            @Value("${employee.client.timeout:2s}") final Duration readTimeout) {
+        return RestClient.builder()
+                .baseUrl(format("http://%s:%s", server, port))
+                .requestFactory(ClientHttpRequestFactories.get(ClientHttpRequestFactorySettings.DEFAULTS
+                        .withConnectTimeout(connectTimeout)
+                        .withReadTimeout(readTimeout)))
+                .requestInterceptor(new UpstreamRequestRecorder())
+                .messageConverters(converters -> {});
+    }
+
+    /**
+     * Does nothing unless {@code employee.jfr.enabled} is set, as it is by the {@code jfr} profile.
+     */
+    @Bean
+    public ContinuousRecording continuousRecording(Environment environment) throws IOException, ParseException {
+        return new ContinuousRecording("employee-api", "employee.jfr", environment);
+    }
+
+    /**
+     * Runs the calls to the Mock Employee Server; its pool size bounds how many of them run at once.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor employeeServerExecutor(
+            @Value("${employee.client.max-concurrency:32}") final int maxConcurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setThreadNamePrefix("employee-server-");
+        return executor;
+    }
+
+    /**
+     * Writes the employee snapshot to disk and revalidates the snapshot restored from it, off the request threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor employeeSnapshotExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("employee-snapshot-");
+        return executor;
     }
 }
@@ -0,0 +1,44 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.controller.EmployeeController;
+import com.reliaquest.api.service.ClientQuotas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per client quotas of the Employee endpoints, checked before anything else handles the request.
+ */
+@Configuration
+public class ClientQuotaConfiguration implements WebMvcConfigurer {
+    private final boolean enabled;
+    private final String trustedClientHeader;
+    private final ClientQuotas clientQuotas;
+
+    public ClientQuotaConfiguration(
+            @Value("${employee.quota.enabled:true}") boolean enabled,
+            @Value("${employee.quota.trusted-client-header:}") String trustedClientHeader,
+            @Value("${employee.quota.max-clients:10000}") int maxClients,
+            @Value("${employee.quota.requests.rate:50}") double requestRate,
+            @Value("${employee.quota.requests.burst:100}") int requestBurst,
+            @Value("${employee.quota.upstream.rate:1}") double upstreamRate,
+            @Value("${employee.quota.upstream.burst:5}") int upstreamBurst) {
+        this.enabled = enabled;
+        this.trustedClientHeader = trustedClientHeader;
+        this.clientQuotas = new ClientQuotas(
+                new ClientQuotas.Limit(requestRate, requestBurst),
+                new ClientQuotas.Limit(upstreamRate, upstreamBurst),
+                maxClients);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(new ClientQuotaInterceptor(clientQuotas, trustedClientHeader))
+                    .addPathPatterns(EmployeeController.PATH + "/**")
+                    .order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.service.ClientQuota;
+import com.reliaquest.api.service.ClientQuotas;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Charges every incoming request to the {@link ClientQuotas} of its client, named by its remote address. A client
+ * header is honoured only when one is configured as trusted, that is set by the gateway in front of the API and never
+ * passed through from the caller, since a caller naming itself would get a fresh quota with every new name. The
+ * request keeps the quota of its client, so the calls it makes to the Mock Employee Server are charged to it as well.
+ */
+public class ClientQuotaInterceptor implements HandlerInterceptor {
+    private final ClientQuotas clientQuotas;
+    private final String trustedClientHeader;
+
+    /**
+     * @param trustedClientHeader the header naming the client, or blank to name every client by its remote address
+     */
+    public ClientQuotaInterceptor(ClientQuotas clientQuotas, String trustedClientHeader) {
+        this.clientQuotas = clientQuotas;
+        this.trustedClientHeader =
+                trustedClientHeader == null || trustedClientHeader.isBlank() ? null : trustedClientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String client = trustedClientHeader == null ? null : request.getHeader(trustedClientHeader);
+        if (client == null || client.isBlank()) {
+            client = request.getRemoteAddr();
+        }
+        request.setAttribute(ClientQuota.ATTRIBUTE, clientQuotas.admit(client.trim()));
+        return true;
+    }
+}
@@ -0,0 +1,38 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.controller.EmployeeController;
+import com.reliaquest.api.service.IEmployeeService;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * HTTP caching of the reads answered from the Employee snapshot: their ETag and their {@code Cache-Control} max-age.
+ */
+@Configuration
+public class HttpCachingConfiguration implements WebMvcConfigurer {
+    private final IEmployeeService employeeService;
+    private final Duration maxAge;
+
+    public HttpCachingConfiguration(
+            IEmployeeService employeeService, @Value("${employee.cache-control.max-age:0s}") Duration maxAge) {
+        this.employeeService = employeeService;
+        this.maxAge = maxAge;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SnapshotETagInterceptor(employeeService, CacheControl.maxAge(maxAge)))
+                .addPathPatterns(
+                        EmployeeController.PATH,
+                        EmployeeController.PATH + "/search/*",
+                        EmployeeController.PATH + "/fuzzySearch/*",
+                        EmployeeController.PATH + "/highestSalary",
+                        EmployeeController.PATH + "/topTenHighestEarningEmployeeNames",
+                        EmployeeController.PATH + "/analytics",
+                        EmployeeController.PATH + "/filter");
+    }
+}
@@ -0,0 +1,44 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.service.RequestDeadline;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Starts the deadline of every incoming request: the budget sent by the caller in the
+ * {@value RequestDeadline#HEADER} header, capped by the configured request deadline.
+ */
+@Component
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+    private final Duration requestDeadline;
+
+    public RequestDeadlineFilter(@Value("${employee.request-deadline:5s}") final Duration requestDeadline) {
+        this.requestDeadline = requestDeadline;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration budget = requestDeadline;
+        String header = request.getHeader(RequestDeadline.HEADER);
+        if (header != null) {
+            try {
+                Duration requested = Duration.ofMillis(Long.parseLong(header.trim()));
+                if (requested.compareTo(budget) < 0) {
+                    budget = requested.isNegative() ? Duration.ZERO : requested;
+                }
+            } catch (NumberFormatException e) {
+                logger.debug("Ignoring invalid " + RequestDeadline.HEADER + " header: " + header);
+            }
+        }
+        request.setAttribute(RequestDeadline.ATTRIBUTE, RequestDeadline.after(budget));
+        filterChain.doFilter(request, response);
+    }
+}
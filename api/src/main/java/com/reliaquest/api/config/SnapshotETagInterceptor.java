@@ -0,0 +1,44 @@
+package com.reliaquest.api.config;
+
+import com.reliaquest.api.service.IEmployeeService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.OptionalLong;
+import java.util.random.RandomGenerator;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Tags the answers of the reads served from the Employee snapshot with a strong ETag of the snapshot version, and
+ * answers 304 Not Modified to a request whose {@code If-None-Match} holds the tag of the snapshot cached now, before
+ * anything is read or serialized. An answer read while no snapshot is cached carries no tag, as it may come from the
+ * Mock Employee Server or a stale snapshot.
+ * <p>
+ * Snapshot versions start over with every start of the API, so the tags also carry a number drawn at startup.
+ */
+public class SnapshotETagInterceptor implements HandlerInterceptor {
+    private final IEmployeeService employeeService;
+    private final String cacheControl;
+    private final String instance =
+            Long.toHexString(RandomGenerator.getDefault().nextLong());
+
+    public SnapshotETagInterceptor(IEmployeeService employeeService, CacheControl cacheControl) {
+        this.employeeService = employeeService;
+        this.cacheControl = cacheControl.getHeaderValue();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        OptionalLong version = employeeService.getSnapshotVersion();
+        return version.isEmpty()
+                || !new ServletWebRequest(request, response)
+                        .checkNotModified("\"" + instance + "-" + version.getAsLong() + "\"");
+    }
+}
@@ -1,12 +1,21 @@
 package com.reliaquest.api.controller;
 
 import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeFields;
+import com.reliaquest.api.dto.EmployeeFilter;
+import com.reliaquest.api.exceptions.InvalidFilterException;
+import com.reliaquest.api.exceptions.InvalidRequestParameterException;
 import com.reliaquest.api.service.IEmployeeService;
 import java.util.List;
+import java.util.Locale;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -15,6 +24,9 @@ import org.springframework.web.bind.annotation.RestController;
 public class EmployeeController implements IEmployeeController<Employee, Employee> {
 
     public static final String PATH = "/api/employeeDetails/v1";
+    private static final int MAX_FUZZY_DISTANCE = 3;
+    private static final int MAX_BULK_IDS = 100;
+    private static final int MAX_FUZZY_LIMIT = 100;
     private final IEmployeeService employeeService;
 
     @Override
@@ -23,17 +35,81 @@ public class EmployeeController implements IEmployeeController<Employee, Employe
         return new ResponseEntity<>(employees, HttpStatus.OK);
     }
 
+    /**
+     * Lists the Employees with only the given fields.
+     *
+     * @param fields comma separated fields of the {@link Employee}, such as {@code id,name}
+     */
+    @GetMapping(params = "fields")
+    public ResponseEntity<EmployeeFields.Projection> getAllEmployees(@RequestParam String fields) {
+        EmployeeFields projection = parseFields(fields);
+        return new ResponseEntity<>(projection.project(employeeService.getAllEmployees(projection)), HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(String searchString) {
         List<Employee> employees = employeeService.getEmployeesByNameSearch(searchString);
         return new ResponseEntity<>(employees, employees.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
     }
 
+    /**
+     * Searches the Employees by name, answering with only the given fields.
+     */
+    @GetMapping(value = "/search/{searchString}", params = "fields")
+    public ResponseEntity<EmployeeFields.Projection> getEmployeesByNameSearch(
+            @PathVariable String searchString, @RequestParam String fields) {
+        EmployeeFields projection = parseFields(fields);
+        List<Employee> employees = employeeService.getEmployeesByNameSearch(searchString, projection);
+        return new ResponseEntity<>(
+                projection.project(employees), employees.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+    }
+
+    /**
+     * Searches the Employees by name, tolerating typos, case and accents.
+     *
+     * @param limit the maximum number of Employees returned, closest names first, at most 100
+     * @param maxDistance the number of edits allowed per word, from 0 to 3, chosen from the word length when absent
+     * @param fields comma separated fields the Employees are answered with, all of them when absent
+     */
+    @GetMapping("/fuzzySearch/{searchString}")
+    public ResponseEntity<EmployeeFields.Projection> getEmployeesByFuzzyNameSearch(
+            @PathVariable String searchString,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) Integer maxDistance,
+            @RequestParam(required = false) String fields) {
+        if (limit < 0 || limit > MAX_FUZZY_LIMIT) {
+            throw new InvalidRequestParameterException(
+                    String.format("limit must be between 0 and %d.", MAX_FUZZY_LIMIT));
+        }
+        if (maxDistance != null && (maxDistance < 0 || maxDistance > MAX_FUZZY_DISTANCE)) {
+            throw new InvalidRequestParameterException(
+                    String.format("maxDistance must be between 0 and %d.", MAX_FUZZY_DISTANCE));
+        }
+        EmployeeFields projection = parseFields(fields);
+        List<Employee> employees =
+                employeeService.getEmployeesByFuzzyNameSearch(searchString, limit, maxDistance, projection);
+        return new ResponseEntity<>(
+                projection.project(employees), employees.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<Employee> getEmployeeById(String id) {
         return new ResponseEntity<>(employeeService.getEmployeeById(id), HttpStatus.OK);
     }
 
+    /**
+     * Looks up several Employees at once; unknown ids are left out.
+     */
+    @GetMapping("/bulk")
+    public ResponseEntity<List<Employee>> getEmployeesByIds(@RequestParam("id") List<String> ids) {
+        if (ids.size() > MAX_BULK_IDS) {
+            throw new InvalidRequestParameterException(
+                    String.format("At most %d ids can be looked up at once.", MAX_BULK_IDS));
+        }
+        List<Employee> employees = employeeService.getEmployeesByIds(ids);
+        return new ResponseEntity<>(employees, employees.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
         return new ResponseEntity<>(employeeService.getHighestSalary().orElse(0), HttpStatus.OK);
@@ -47,6 +123,37 @@ public class EmployeeController implements IEmployeeController<Employee, Employe
                 highestEarningEmployeeNames.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
     }
 
+    @GetMapping("/analytics")
+    public ResponseEntity<EmployeeAnalytics> getEmployeeAnalytics() {
+        return new ResponseEntity<>(employeeService.getAnalytics(), HttpStatus.OK);
+    }
+
+    /**
+     * Filters the Employees by salary and age ranges and titles.
+     *
+     * @param sort {@code salary}, {@code age} or {@code name}, prefixed with {@code -} for descending order
+     * @param fields comma separated fields the Employees are answered with, all of them when absent
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<EmployeeFields.Projection> getEmployeesByFilter(
+            @RequestParam(required = false) Integer minSalary,
+            @RequestParam(required = false) Integer maxSalary,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(required = false) List<String> title,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields) {
+        if (limit != null && limit < 0) {
+            throw new InvalidFilterException("limit must not be negative.");
+        }
+        EmployeeFields projection = parseFields(fields);
+        List<Employee> employees = employeeService.getEmployeesByFilter(
+                new EmployeeFilter(minSalary, maxSalary, minAge, maxAge, title, parseSort(sort), limit), projection);
+        return new ResponseEntity<>(
+                projection.project(employees), employees.isEmpty() ? HttpStatus.NO_CONTENT : HttpStatus.OK);
+    }
+
     @Override
     public ResponseEntity<Employee> createEmployee(Employee employeeInput) {
         Employee employee = employeeService.createEmployee(employeeInput);
@@ -62,4 +169,26 @@ public class EmployeeController implements IEmployeeController<Employee, Employe
             return new ResponseEntity<>(result, HttpStatus.NOT_IMPLEMENTED);
         }
     }
+
+    private static EmployeeFields parseFields(String fields) {
+        try {
+            return EmployeeFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFilterException(e.getMessage());
+        }
+    }
+
+    private static EmployeeFilter.Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        boolean descending = sort.startsWith("-");
+        String field = descending ? sort.substring(1) : sort;
+        try {
+            return new EmployeeFilter.Sort(
+                    EmployeeFilter.SortField.valueOf(field.toUpperCase(Locale.ROOT)), descending);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidFilterException(String.format("Cannot sort by %s.", field));
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+
+/**
+ * Salary and age analytics computed over all the Employees.
+ * @param count number of Employees
+ * @param salary distribution of the salaries
+ * @param age distribution of the ages
+ * @param titles aggregates per title, ordered by descending Employee count
+ */
+public record EmployeeAnalytics(int count, Distribution salary, Distribution age, List<TitleAggregate> titles) {
+
+    /**
+     * Distribution of a numeric attribute. All values are null when no Employee has the attribute.
+     * Percentiles are read from a histogram of at most {@code 4096} bins between min and max, so they are exact for
+     * narrow ranges such as age and otherwise within half a bin of the true value.
+     * @param min lowest value
+     * @param max highest value
+     * @param mean arithmetic mean of the values
+     * @param p50 median value
+     * @param p90 value not exceeded by 90% of the Employees
+     * @param p99 value not exceeded by 99% of the Employees
+     * @param histogram equal width buckets covering min to max
+     */
+    public record Distribution(
+            Integer min,
+            Integer max,
+            Double mean,
+            Integer p50,
+            Integer p90,
+            Integer p99,
+            List<HistogramBucket> histogram) {}
+
+    /**
+     * @param from lowest value in the bucket, inclusive
+     * @param to highest value in the bucket, inclusive
+     * @param count number of Employees in the bucket
+     */
+    public record HistogramBucket(int from, int to, long count) {}
+
+    /**
+     * Aggregates of the Employees sharing a title; the salary and age values are null when none of them has one.
+     * @param title the title shared by the Employees
+     * @param count number of Employees with the title
+     * @param minSalary lowest salary of the Employees with the title
+     * @param maxSalary highest salary of the Employees with the title
+     * @param meanSalary mean salary of the Employees with the title
+     * @param meanAge mean age of the Employees with the title
+     */
+    public record TitleAggregate(
+            String title, int count, Integer minSalary, Integer maxSalary, Double meanSalary, Double meanAge) {}
+}
@@ -0,0 +1,192 @@
+package com.reliaquest.api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of an {@link Employee} asked for with the {@code fields} request parameter, such as {@code id,name}.
+ * Every one of the 64 sets is built once, with the writers of its fields in order, so an answer projected on a set is
+ * written field by field straight to the generator instead of through the reflective serializer of {@link Employee}
+ * and a property filter per request.
+ */
+public final class EmployeeFields {
+    private static final EmployeeFields[] SETS = new EmployeeFields[1 << Field.values().length];
+
+    static {
+        for (int mask = 0; mask < SETS.length; mask++) {
+            SETS[mask] = new EmployeeFields(mask);
+        }
+    }
+
+    public static final EmployeeFields ALL = SETS[SETS.length - 1];
+
+    private final int mask;
+    private final Field[] fields;
+
+    private EmployeeFields(int mask) {
+        this.mask = mask;
+        this.fields = Arrays.stream(Field.values())
+                .filter(field -> (mask & field.bit()) != 0)
+                .toArray(Field[]::new);
+    }
+
+    /**
+     * @param fields comma separated names of the fields, every field when null or blank
+     * @throws IllegalArgumentException when a name is not one of the {@link Field}s.
+     */
+    public static EmployeeFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            mask |= Field.named(name.trim()).bit();
+        }
+        return SETS[mask];
+    }
+
+    public boolean contains(Field field) {
+        return (mask & field.bit()) != 0;
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * @return the set as the value of a {@code fields} request parameter.
+     */
+    public String toParameter() {
+        return Arrays.stream(fields).map(Field::parameterName).collect(Collectors.joining(","));
+    }
+
+    public Projection project(List<Employee> employees) {
+        return new Projection(employees, this);
+    }
+
+    private void write(Employee employee, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(employee);
+        for (Field field : fields) {
+            generator.writeFieldName(field.jsonName);
+            field.writeValue(employee, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    @Override
+    public String toString() {
+        return toParameter();
+    }
+
+    public enum Field {
+        ID {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                UUID id = employee.id();
+                if (id == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(id.toString());
+                }
+            }
+        },
+        NAME {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.name());
+            }
+        },
+        SALARY {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                writeNumber(employee.salary(), generator);
+            }
+        },
+        AGE {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                writeNumber(employee.age(), generator);
+            }
+        },
+        TITLE {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.title());
+            }
+        },
+        EMAIL {
+            @Override
+            void writeValue(Employee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.email());
+            }
+        };
+
+        private final SerializableString jsonName = new SerializedString(parameterName());
+
+        /**
+         * @return the name of the field in requests and answers, the name of the {@link Employee} component.
+         */
+        public String parameterName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        abstract void writeValue(Employee employee, JsonGenerator generator) throws IOException;
+
+        private int bit() {
+            return 1 << ordinal();
+        }
+
+        private static Field named(String name) {
+            for (Field field : values()) {
+                if (field.parameterName().equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException(String.format("There is no Employee field %s.", name));
+        }
+
+        private static void writeNumber(Integer value, JsonGenerator generator) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+    }
+
+    /**
+     * Employees written with only the fields of the set.
+     *
+     * @param employees the Employees to write, in the order they are written
+     * @param fields the fields written for every Employee
+     */
+    @JsonSerialize(using = ProjectionSerializer.class)
+    public record Projection(List<Employee> employees, EmployeeFields fields) {}
+
+    static final class ProjectionSerializer extends StdSerializer<Projection> {
+        ProjectionSerializer() {
+            super(Projection.class);
+        }
+
+        @Override
+        public void serialize(Projection projection, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            List<Employee> employees = projection.employees();
+            generator.writeStartArray(employees, employees.size());
+            for (Employee employee : employees) {
+                projection.fields().write(employee, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
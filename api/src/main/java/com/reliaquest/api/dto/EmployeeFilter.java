@@ -0,0 +1,35 @@
+package com.reliaquest.api.dto;
+
+import java.util.List;
+
+/**
+ * Multi-attribute filter over the Employees. Every predicate is optional and all the given predicates must match.
+ * @param minSalary lowest salary, inclusive
+ * @param maxSalary highest salary, inclusive
+ * @param minAge lowest age, inclusive
+ * @param maxAge highest age, inclusive
+ * @param titles exact titles of which the Employee must have one
+ * @param sort order of the result, snapshot order when null
+ * @param limit maximum number of Employees returned, unlimited when null
+ */
+public record EmployeeFilter(
+        Integer minSalary,
+        Integer maxSalary,
+        Integer minAge,
+        Integer maxAge,
+        List<String> titles,
+        Sort sort,
+        Integer limit) {
+
+    public enum SortField {
+        SALARY,
+        AGE,
+        NAME
+    }
+
+    /**
+     * @param field the field the Employees are ordered by
+     * @param descending whether the highest value comes first
+     */
+    public record Sort(SortField field, boolean descending) {}
+}
@@ -0,0 +1,20 @@
+package com.reliaquest.api.exceptions;
+
+import java.time.Duration;
+
+/**
+ * The client sent more requests, or more requests calling the Mock Employee Server, than its quota allows, and gets
+ * more of them again after {@code retryAfter}.
+ */
+public class ClientQuotaExceededException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public ClientQuotaExceededException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,5 +1,6 @@
 package com.reliaquest.api.exceptions;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -25,4 +26,78 @@ public class EmployeeExceptionHandler {
                 new ErrorResponse(webRequest.getDescription(false), HttpStatus.NOT_FOUND, exception.getMessage()),
                 HttpStatus.NOT_FOUND);
     }
+
+    @ExceptionHandler(InvalidFilterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidFilter(
+            final InvalidFilterException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(webRequest.getDescription(false), HttpStatus.BAD_REQUEST, exception.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestParameter(
+            final InvalidRequestParameterException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(webRequest.getDescription(false), HttpStatus.BAD_REQUEST, exception.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidIdempotencyKey(
+            final InvalidIdempotencyKeyException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(webRequest.getDescription(false), HttpStatus.BAD_REQUEST, exception.getMessage()),
+                HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(UpstreamTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamTimeout(
+            final UpstreamTimeoutException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(webRequest.getDescription(false), HttpStatus.GATEWAY_TIMEOUT, exception.getMessage()),
+                HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * Tells the client when to retry, so the clients of a throttled Mock Employee Server back off together.
+     */
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailable(
+            final UpstreamUnavailableException exception, final WebRequest webRequest) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(
+                        HttpHeaders.RETRY_AFTER,
+                        String.valueOf(exception.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse(
+                        webRequest.getDescription(false), HttpStatus.SERVICE_UNAVAILABLE, exception.getMessage()));
+    }
+
+    @ExceptionHandler(ClientQuotaExceededException.class)
+    public ResponseEntity<ErrorResponse> handleClientQuotaExceeded(
+            final ClientQuotaExceededException exception, final WebRequest webRequest) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(
+                        HttpHeaders.RETRY_AFTER,
+                        String.valueOf(exception.getRetryAfter().toSeconds()))
+                .body(new ErrorResponse(
+                        webRequest.getDescription(false), HttpStatus.TOO_MANY_REQUESTS, exception.getMessage()));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyReused(
+            final IdempotencyKeyReusedException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(
+                        webRequest.getDescription(false), HttpStatus.UNPROCESSABLE_ENTITY, exception.getMessage()),
+                HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInDoubtException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyInDoubt(
+            final IdempotencyKeyInDoubtException exception, final WebRequest webRequest) {
+        return new ResponseEntity<>(
+                new ErrorResponse(webRequest.getDescription(false), HttpStatus.CONFLICT, exception.getMessage()),
+                HttpStatus.CONFLICT);
+    }
 }
@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class IdempotencyKeyInDoubtException extends RuntimeException {
+    public IdempotencyKeyInDoubtException(final String message) {
+        super(message);
+    }
+}
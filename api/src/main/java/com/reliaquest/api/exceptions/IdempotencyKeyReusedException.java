@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(final String message) {
+        super(message);
+    }
+}
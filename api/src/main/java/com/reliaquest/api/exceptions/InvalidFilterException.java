@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(final String message) {
+        super(message);
+    }
+}
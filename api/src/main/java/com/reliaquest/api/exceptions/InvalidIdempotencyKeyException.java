@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(final String message) {
+        super(message);
+    }
+}
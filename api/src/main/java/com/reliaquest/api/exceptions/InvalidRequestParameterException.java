@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class InvalidRequestParameterException extends RuntimeException {
+    public InvalidRequestParameterException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.reliaquest.api.exceptions;
+
+public class UpstreamTimeoutException extends RuntimeException {
+    public UpstreamTimeoutException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,27 @@
+package com.reliaquest.api.exceptions;
+
+import java.time.Duration;
+
+/**
+ * The Mock Employee Server throttled or failed the call, and is not expected to answer before {@code retryAfter}.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @param cause the answer of the Mock Employee Server
+     */
+    public UpstreamUnavailableException(final String message, final Duration retryAfter, final Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
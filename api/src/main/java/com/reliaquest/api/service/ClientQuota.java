@@ -0,0 +1,75 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exceptions.ClientQuotaExceededException;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The quotas of the client an incoming request comes from: one for all its requests and one for those of its
+ * requests which call the Mock Employee Server. Like the {@link RequestDeadline}, it is kept as an attribute of the
+ * request, so the calls made on behalf of the request are charged to its client.
+ */
+public final class ClientQuota {
+    public static final String ATTRIBUTE = ClientQuota.class.getName();
+
+    private final String client;
+    private final TokenBucket requests;
+    private final TokenBucket upstreamCalls;
+
+    ClientQuota(String client, TokenBucket requests, TokenBucket upstreamCalls) {
+        this.client = client;
+        this.requests = requests;
+        this.upstreamCalls = upstreamCalls;
+    }
+
+    /**
+     * @return the quota of the client of the request being handled by the current thread, if any.
+     */
+    static Optional<ClientQuota> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? Optional.empty()
+                : Optional.ofNullable(
+                        (ClientQuota) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    String client() {
+        return client;
+    }
+
+    void takeRequest(long now) {
+        take(requests, now, 1, "requests");
+    }
+
+    /**
+     * @throws ClientQuotaExceededException when the client made too many calls to the Mock Employee Server.
+     */
+    void takeUpstreamCall() {
+        takeUpstreamCalls(1);
+    }
+
+    /**
+     * Charges a request fanning out to several calls to the Mock Employee Server with every one of them.
+     *
+     * @throws ClientQuotaExceededException when the client made too many calls to the Mock Employee Server.
+     */
+    void takeUpstreamCalls(int calls) {
+        take(upstreamCalls, System.nanoTime(), calls, "requests reaching the Mock Employee Server");
+    }
+
+    boolean isIdle(long now) {
+        return requests.isFull(now) && upstreamCalls.isFull(now);
+    }
+
+    private void take(TokenBucket bucket, long now, int tokens, String what) {
+        long wait = bucket.tryTake(now, tokens);
+        if (wait > 0) {
+            // Retry-After is in whole seconds, rounded up so the client does not come back too early.
+            Duration retryAfter = Duration.ofSeconds(Math.max(1, (wait + 999_999_999L) / 1_000_000_000L));
+            throw new ClientQuotaExceededException(
+                    String.format("Client %s is over its quota of %s.", client, what), retryAfter);
+        }
+    }
+}
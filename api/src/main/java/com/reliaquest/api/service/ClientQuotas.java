@@ -0,0 +1,69 @@
+package com.reliaquest.api.service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link ClientQuota} of every client seen lately, for at most {@code maxClients} clients. When there are more,
+ * the clients whose quotas are untouched are forgotten first, as they would start over from the same full quotas;
+ * only when every client is over its quota are some of them forgotten regardless.
+ */
+public class ClientQuotas {
+    private final Limit requests;
+    private final Limit upstreamCalls;
+    private final int maxClients;
+    private final Map<String, ClientQuota> quotas = new ConcurrentHashMap<>();
+
+    /**
+     * @param rate the tokens added per second
+     * @param burst the most tokens held
+     */
+    public record Limit(double rate, int burst) {}
+
+    public ClientQuotas(Limit requests, Limit upstreamCalls, int maxClients) {
+        this.requests = requests;
+        this.upstreamCalls = upstreamCalls;
+        this.maxClients = Math.max(maxClients, 1);
+    }
+
+    /**
+     * Takes a request from the quota of the client.
+     *
+     * @return the quota of the client, to be kept with the request.
+     * @throws com.reliaquest.api.exceptions.ClientQuotaExceededException when the client sent too many requests.
+     */
+    public ClientQuota admit(String client) {
+        return admit(client, System.nanoTime());
+    }
+
+    ClientQuota admit(String client, long now) {
+        ClientQuota quota = quotas.get(client);
+        if (quota == null) {
+            if (quotas.size() >= maxClients) {
+                evict(now);
+            }
+            quota = quotas.computeIfAbsent(
+                    client,
+                    ignored -> new ClientQuota(
+                            client,
+                            new TokenBucket(requests.rate(), requests.burst(), now),
+                            new TokenBucket(upstreamCalls.rate(), upstreamCalls.burst(), now)));
+        }
+        quota.takeRequest(now);
+        return quota;
+    }
+
+    int size() {
+        return quotas.size();
+    }
+
+    private void evict(long now) {
+        quotas.values().removeIf(quota -> quota.isIdle(now));
+        Iterator<ClientQuota> overQuota = quotas.values().iterator();
+        while (quotas.size() >= maxClients && overQuota.hasNext()) {
+            overQuota.next();
+            overQuota.remove();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.reliaquest.api.service;
+
+import static com.reliaquest.api.service.EmployeeSnapshot.NULL_INT;
+
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeAnalytics.Distribution;
+import com.reliaquest.api.dto.EmployeeAnalytics.HistogramBucket;
+import com.reliaquest.api.dto.EmployeeAnalytics.TitleAggregate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Package protected calculation of {@link EmployeeAnalytics} in a single pass over an {@link EmployeeSnapshot}. Large
+ * snapshots are split across the common fork join pool; every split fills its own histograms and per-title arrays,
+ * which are then merged. As the snapshot already knows the salary and age ranges, percentiles are read off the
+ * histograms without sorting.
+ */
+final class EmployeeAnalyticsCalculator {
+    static final int MAX_BINS = 4096;
+    static final int HISTOGRAM_BUCKETS = 10;
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    private EmployeeAnalyticsCalculator() {}
+
+    static EmployeeAnalytics calculate(EmployeeSnapshot snapshot) {
+        Binning salaryBinning = Binning.of(snapshot.minSalary(), snapshot.maxSalary());
+        Binning ageBinning = Binning.of(snapshot.minAge(), snapshot.maxAge());
+
+        IntStream rows = IntStream.range(0, snapshot.size());
+        if (snapshot.size() >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        Accumulator total = rows.collect(
+                () -> new Accumulator(snapshot, salaryBinning, ageBinning), Accumulator::accept, Accumulator::merge);
+
+        return new EmployeeAnalytics(
+                snapshot.size(),
+                distribution(
+                        salaryBinning,
+                        total.salaryBins,
+                        snapshot.minSalary(),
+                        snapshot.maxSalary(),
+                        total.salarySum,
+                        total.salaryCount),
+                distribution(
+                        ageBinning, total.ageBins, snapshot.minAge(), snapshot.maxAge(), total.ageSum, total.ageCount),
+                titleAggregates(snapshot, total));
+    }
+
+    private static Distribution distribution(Binning binning, long[] bins, int min, int max, long sum, long count) {
+        if (count == 0) {
+            return new Distribution(null, null, null, null, null, null, List.of());
+        }
+        return new Distribution(
+                min,
+                max,
+                (double) sum / count,
+                percentile(binning, bins, max, count, 0.50),
+                percentile(binning, bins, max, count, 0.90),
+                percentile(binning, bins, max, count, 0.99),
+                histogram(binning, bins, max));
+    }
+
+    private static int percentile(Binning binning, long[] bins, int max, long count, double quantile) {
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int bin = 0; bin < bins.length; bin++) {
+            seen += bins[bin];
+            if (seen >= rank) {
+                return (int) Math.min(max, binning.lowerBound(bin) + (binning.width - 1) / 2);
+            }
+        }
+        return max;
+    }
+
+    private static List<HistogramBucket> histogram(Binning binning, long[] bins, int max) {
+        long range = (long) max - binning.min + 1;
+        long bucketWidth = ceilDiv(ceilDiv(range, HISTOGRAM_BUCKETS), binning.width) * binning.width;
+        int binsPerBucket = (int) (bucketWidth / binning.width);
+        List<HistogramBucket> histogram = new ArrayList<>(HISTOGRAM_BUCKETS);
+        for (int first = 0; first < bins.length; first += binsPerBucket) {
+            long count = 0;
+            for (int bin = first; bin < Math.min(bins.length, first + binsPerBucket); bin++) {
+                count += bins[bin];
+            }
+            long from = binning.lowerBound(first);
+            histogram.add(new HistogramBucket((int) from, (int) Math.min(max, from + bucketWidth - 1), count));
+        }
+        return histogram;
+    }
+
+    private static List<TitleAggregate> titleAggregates(EmployeeSnapshot snapshot, Accumulator total) {
+        List<TitleAggregate> titles = new ArrayList<>(snapshot.titleCount());
+        for (int code = 0; code < snapshot.titleCount(); code++) {
+            if (total.titleCounts[code] == 0) {
+                continue;
+            }
+            boolean hasSalary = total.titleSalaryCounts[code] > 0;
+            titles.add(new TitleAggregate(
+                    snapshot.titleForCode(code),
+                    total.titleCounts[code],
+                    hasSalary ? total.titleMinSalaries[code] : null,
+                    hasSalary ? total.titleMaxSalaries[code] : null,
+                    hasSalary ? (double) total.titleSalarySums[code] / total.titleSalaryCounts[code] : null,
+                    total.titleAgeCounts[code] > 0
+                            ? (double) total.titleAgeSums[code] / total.titleAgeCounts[code]
+                            : null));
+        }
+        titles.sort(Comparator.comparingInt(TitleAggregate::count).reversed().thenComparing(TitleAggregate::title));
+        return titles;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+    /**
+     * Equal width bins starting at {@code min}; one bin per value whenever the range fits in {@link #MAX_BINS}.
+     */
+    private record Binning(int min, long width, int bins) {
+        static Binning of(int min, int max) {
+            if (min == NULL_INT) {
+                return new Binning(0, 1, 0);
+            }
+            long range = (long) max - min + 1;
+            long width = ceilDiv(range, MAX_BINS);
+            return new Binning(min, width, (int) ceilDiv(range, width));
+        }
+
+        int bin(int value) {
+            return (int) (((long) value - min) / width);
+        }
+
+        long lowerBound(int bin) {
+            return min + bin * width;
+        }
+    }
+
+    private static final class Accumulator {
+        private final EmployeeSnapshot snapshot;
+        private final Binning salaryBinning;
+        private final Binning ageBinning;
+        private final long[] salaryBins;
+        private final long[] ageBins;
+        private long salarySum;
+        private long salaryCount;
+        private long ageSum;
+        private long ageCount;
+        private final int[] titleCounts;
+        private final int[] titleSalaryCounts;
+        private final int[] titleAgeCounts;
+        private final long[] titleSalarySums;
+        private final long[] titleAgeSums;
+        private final int[] titleMinSalaries;
+        private final int[] titleMaxSalaries;
+
+        Accumulator(EmployeeSnapshot snapshot, Binning salaryBinning, Binning ageBinning) {
+            this.snapshot = snapshot;
+            this.salaryBinning = salaryBinning;
+            this.ageBinning = ageBinning;
+            this.salaryBins = new long[salaryBinning.bins];
+            this.ageBins = new long[ageBinning.bins];
+            int titles = snapshot.titleCount();
+            this.titleCounts = new int[titles];
+            this.titleSalaryCounts = new int[titles];
+            this.titleAgeCounts = new int[titles];
+            this.titleSalarySums = new long[titles];
+            this.titleAgeSums = new long[titles];
+            this.titleMinSalaries = new int[titles];
+            this.titleMaxSalaries = new int[titles];
+            Arrays.fill(titleMinSalaries, Integer.MAX_VALUE);
+            Arrays.fill(titleMaxSalaries, Integer.MIN_VALUE);
+        }
+
+        void accept(int row) {
+            int salary = snapshot.salary(row);
+            int age = snapshot.age(row);
+            int title = snapshot.titleCode(row);
+            if (salary != NULL_INT) {
+                salaryBins[salaryBinning.bin(salary)]++;
+                salarySum += salary;
+                salaryCount++;
+            }
+            if (age != NULL_INT) {
+                ageBins[ageBinning.bin(age)]++;
+                ageSum += age;
+                ageCount++;
+            }
+            if (title != NULL_INT) {
+                titleCounts[title]++;
+                if (salary != NULL_INT) {
+                    titleSalaryCounts[title]++;
+                    titleSalarySums[title] += salary;
+                    titleMinSalaries[title] = Math.min(titleMinSalaries[title], salary);
+                    titleMaxSalaries[title] = Math.max(titleMaxSalaries[title], salary);
+                }
+                if (age != NULL_INT) {
+                    titleAgeCounts[title]++;
+                    titleAgeSums[title] += age;
+                }
+            }
+        }
+
+        void merge(Accumulator other) {
+            for (int bin = 0; bin < salaryBins.length; bin++) {
+                salaryBins[bin] += other.salaryBins[bin];
+            }
+            for (int bin = 0; bin < ageBins.length; bin++) {
+                ageBins[bin] += other.ageBins[bin];
+            }
+            salarySum += other.salarySum;
+            salaryCount += other.salaryCount;
+            ageSum += other.ageSum;
+            ageCount += other.ageCount;
+            for (int title = 0; title < titleCounts.length; title++) {
+                titleCounts[title] += other.titleCounts[title];
+                titleSalaryCounts[title] += other.titleSalaryCounts[title];
+                titleAgeCounts[title] += other.titleAgeCounts[title];
+                titleSalarySums[title] += other.titleSalarySums[title];
+                titleAgeSums[title] += other.titleAgeSums[title];
+                titleMinSalaries[title] = Math.min(titleMinSalaries[title], other.titleMinSalaries[title]);
+                titleMaxSalaries[title] = Math.max(titleMaxSalaries[title], other.titleMaxSalaries[title]);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Package protected creation of Employees which, when enabled, coalesces the creates arriving within
+ * {@code max-delay} of each other, up to {@code max-size} of them, into a single bulk call to the Mock Employee Server
+ * and evicts the cached snapshot once per batch rather than once per Employee.
+ * <p>
+ * The first create of a batch leads it: it waits for the others on its own thread and then sends the batch, so no
+ * thread is added and a batch is never held longer than {@code max-delay}. When the Mock Employee Server rejects the
+ * batch as a bad request, its Employees are created one by one so only the invalid ones fail.
+ * <p>
+ * Every create waiting in a batch holds a permit of the {@link UpstreamBulkhead}, so a batch never grows beyond
+ * {@code employee.bulkhead.max-concurrent} creates; a larger {@code max-size} is lowered to it. The others wait for
+ * the leader no longer than the {@link RequestDeadline} of their request.
+ */
+@Component
+@Slf4j
+class EmployeeCreateBatcher {
+    private final EmployeeServerClient employeeServerClient;
+    private final EmployeeCacheService employeeCacheService;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private Batch open;
+
+    public EmployeeCreateBatcher(
+            EmployeeServerClient employeeServerClient,
+            EmployeeCacheService employeeCacheService,
+            @Value("${employee.client.create-batching.enabled:false}") boolean enabled,
+            @Value("${employee.client.create-batching.max-size:32}") int maxSize,
+            @Value("${employee.client.create-batching.max-delay:5ms}") Duration maxDelay,
+            @Value("${employee.bulkhead.max-concurrent:32}") int maxConcurrent) {
+        this.employeeServerClient = employeeServerClient;
+        this.employeeCacheService = employeeCacheService;
+        this.enabled = enabled;
+        if (enabled && maxSize > maxConcurrent) {
+            log.warn(
+                    "Create batches of {} cannot fill up with at most {} creates running at once, batching {} at most.",
+                    maxSize,
+                    maxConcurrent,
+                    maxConcurrent);
+        }
+        this.maxSize = Math.max(Math.min(maxSize, maxConcurrent), 1);
+        this.maxDelayNanos = maxDelay.toNanos();
+    }
+
+    /**
+     * @return the created Employee, once the batch it is part of has been created.
+     */
+    RepositoryEmployee create(EmployeeCreate employeeCreate) {
+        if (!enabled) {
+            RepositoryEmployee created =
+                    employeeServerClient.createEmployee(employeeCreate).data();
+            employeeCacheService.evictSnapshot();
+            return created;
+        }
+        Batch batch;
+        CompletableFuture<RepositoryEmployee> created;
+        boolean leader;
+        synchronized (this) {
+            if (open == null) {
+                open = new Batch();
+            }
+            batch = open;
+            leader = batch.creates.isEmpty();
+            created = batch.add(employeeCreate);
+            if (batch.creates.size() >= maxSize) {
+                open = null;
+                notifyAll();
+            }
+        }
+        if (leader) {
+            awaitClose(batch);
+            send(batch);
+        }
+        return await(created);
+    }
+
+    /**
+     * @throws UpstreamTimeoutException when the request deadline passes before the batch has been created.
+     */
+    private static RepositoryEmployee await(CompletableFuture<RepositoryEmployee> created) {
+        try {
+            Optional<RequestDeadline> deadline = RequestDeadline.current();
+            return deadline.isPresent()
+                    ? created.get(deadline.get().remaining().toNanos(), TimeUnit.NANOSECONDS)
+                    : created.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new UpstreamTimeoutException("Employee could not be created in time.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamTimeoutException("Interrupted while waiting for the Employee to be created.");
+        }
+    }
+
+    private synchronized void awaitClose(Batch batch) {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        long remaining = maxDelayNanos;
+        while (open == batch && remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        if (open == batch) {
+            open = null;
+        }
+    }
+
+    private void send(Batch batch) {
+        try {
+            List<RepositoryEmployee> employees = batch.creates.size() == 1
+                    ? List.of(employeeServerClient
+                            .createEmployee(batch.creates.get(0))
+                            .data())
+                    : employeeServerClient.createEmployees(batch.creates).data();
+            if (employees == null || employees.size() != batch.creates.size()) {
+                throw new IllegalStateException("The Mock Employee Server did not answer with every created Employee.");
+            }
+            for (int i = 0; i < employees.size(); i++) {
+                batch.results.get(i).complete(employees.get(i));
+            }
+            log.debug("Created {} Employees in one batch.", employees.size());
+        } catch (HttpClientErrorException.BadRequest e) {
+            if (batch.creates.size() == 1) {
+                batch.results.get(0).completeExceptionally(e);
+                return;
+            }
+            log.info("Batch of {} Employees rejected, creating them one by one.", batch.creates.size());
+            for (int i = 0; i < batch.creates.size(); i++) {
+                try {
+                    batch.results
+                            .get(i)
+                            .complete(employeeServerClient
+                                    .createEmployee(batch.creates.get(i))
+                                    .data());
+                } catch (RuntimeException failure) {
+                    batch.results.get(i).completeExceptionally(failure);
+                }
+            }
+        } catch (RuntimeException e) {
+            batch.results.forEach(result -> result.completeExceptionally(e));
+        } finally {
+            employeeCacheService.evictSnapshot();
+        }
+    }
+
+    private static final class Batch {
+        private final List<EmployeeCreate> creates = new ArrayList<>();
+        private final List<CompletableFuture<RepositoryEmployee>> results = new ArrayList<>();
+
+        CompletableFuture<RepositoryEmployee> add(EmployeeCreate employeeCreate) {
+            CompletableFuture<RepositoryEmployee> result = new CompletableFuture<>();
+            creates.add(employeeCreate);
+            results.add(result);
+            return result;
+        }
+    }
+}
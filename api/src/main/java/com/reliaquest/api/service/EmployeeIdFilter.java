@@ -0,0 +1,64 @@
+package com.reliaquest.api.service;
+
+import java.util.UUID;
+
+/**
+ * Package protected Bloom filter of the Employee ids of a snapshot, built once per snapshot version with
+ * {@link EmployeeSnapshot#derived}. An id it does not contain is certainly not in the snapshot; one it contains is in
+ * the snapshot but for about one id in a hundred.
+ */
+final class EmployeeIdFilter {
+    private static final int BITS_PER_ID = 10;
+    private static final int HASHES = 7;
+
+    private final long[] words;
+    private final long mask;
+
+    private EmployeeIdFilter(int expectedIds) {
+        int bits = Integer.highestOneBit(Math.max(expectedIds * BITS_PER_ID, Long.SIZE) * 2 - 1);
+        this.words = new long[bits / Long.SIZE];
+        this.mask = bits - 1;
+    }
+
+    static EmployeeIdFilter build(EmployeeSnapshot snapshot) {
+        EmployeeIdFilter filter = new EmployeeIdFilter(snapshot.size());
+        for (int row = 0; row < snapshot.size(); row++) {
+            filter.add(snapshot.id(row));
+        }
+        return filter;
+    }
+
+    boolean mightContain(UUID id) {
+        long hash = hash(id);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++, hash += step) {
+            long bit = hash & mask;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(UUID id) {
+        long hash = hash(id);
+        long step = (hash >>> 32) | 1;
+        for (int i = 0; i < HASHES; i++, hash += step) {
+            long bit = hash & mask;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static long hash(UUID id) {
+        return mix(id.getMostSignificantBits()) ^ mix(id.getLeastSignificantBits() + 1);
+    }
+
+    /**
+     * The finalizer of MurmurHash3, spreading every bit of the value over the whole hash.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+        value = (value ^ (value >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,294 @@
+package com.reliaquest.api.service;
+
+import static com.reliaquest.api.service.EmployeeSnapshot.NULL_INT;
+
+import com.reliaquest.api.dto.EmployeeFilter;
+import com.reliaquest.api.dto.EmployeeFilter.SortField;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Package protected secondary indexes over an {@link EmployeeSnapshot}, built once per snapshot:
+ * <ul>
+ *     <li>rows sorted by salary and by age, for range predicates and ordered scans</li>
+ *     <li>a sorted posting list of rows per title, for equality predicates</li>
+ * </ul>
+ * Titles use posting lists rather than one bitmap per title, as the titles are mostly unique and a dense bitmap costs
+ * {@code size / 8} bytes per title however few rows it holds.
+ * <p>
+ * {@link #filter(EmployeeFilter)} counts the candidates of every predicate from the indexes, drives the scan from the
+ * most selective one and checks the remaining predicates against the snapshot columns. When the requested order is
+ * the order of the driving index the scan stops as soon as the limit is reached, otherwise only the matches are
+ * sorted, so the cost follows the size of the result rather than the number of Employees.
+ */
+final class EmployeeIndexes {
+    private final EmployeeSnapshot snapshot;
+    private final SortedIndex bySalary;
+    private final SortedIndex byAge;
+    private final Map<String, int[]> rowsByTitle;
+
+    private EmployeeIndexes(
+            EmployeeSnapshot snapshot, SortedIndex bySalary, SortedIndex byAge, Map<String, int[]> rowsByTitle) {
+        this.snapshot = snapshot;
+        this.bySalary = bySalary;
+        this.byAge = byAge;
+        this.rowsByTitle = rowsByTitle;
+    }
+
+    static EmployeeIndexes build(EmployeeSnapshot snapshot) {
+        Collector collector = new Collector(snapshot.size());
+        for (int row = 0; row < snapshot.size(); row++) {
+            collector.add(snapshot.salary(row), snapshot.age(row), snapshot.titleCode(row));
+        }
+        return collector.build(snapshot);
+    }
+
+    /**
+     * @return the matching rows in the order and up to the limit requested by the filter.
+     */
+    int[] filter(EmployeeFilter filter) {
+        int limit = filter.limit() == null ? Integer.MAX_VALUE : filter.limit();
+        Candidates candidates = mostSelective(filter);
+        SortField sortField = filter.sort() == null ? null : filter.sort().field();
+        boolean descending = filter.sort() != null && filter.sort().descending();
+
+        if (sortField == candidates.orderedBy) {
+            return scanInOrder(candidates, filter, descending, limit);
+        }
+        int[] matches = scanInOrder(candidates, filter, false, Integer.MAX_VALUE);
+        return sort(matches, sortField, descending, limit);
+    }
+
+    private Candidates mostSelective(EmployeeFilter filter) {
+        Candidates best = null;
+        if (filter.minSalary() != null || filter.maxSalary() != null) {
+            best = bySalary.range(filter.minSalary(), filter.maxSalary(), SortField.SALARY);
+        }
+        if (filter.minAge() != null || filter.maxAge() != null) {
+            best = smallest(best, byAge.range(filter.minAge(), filter.maxAge(), SortField.AGE));
+        }
+        if (filter.titles() != null && !filter.titles().isEmpty()) {
+            best = smallest(best, titleCandidates(filter.titles()));
+        }
+        if (best != null) {
+            return best;
+        }
+        // No predicate at all: walk the index of the requested order so a limit can stop the scan early.
+        SortField sortField = filter.sort() == null ? null : filter.sort().field();
+        if (sortField == SortField.SALARY) {
+            return bySalary.all(SortField.SALARY);
+        }
+        if (sortField == SortField.AGE) {
+            return byAge.all(SortField.AGE);
+        }
+        return new Candidates(null, 0, snapshot.size(), null);
+    }
+
+    private Candidates titleCandidates(List<String> titles) {
+        int[][] postings = titles.stream()
+                .distinct()
+                .map(title -> rowsByTitle.getOrDefault(title, new int[0]))
+                .toArray(int[][]::new);
+        if (postings.length == 1) {
+            return new Candidates(postings[0], 0, postings[0].length, null);
+        }
+        int[] rows =
+                Arrays.stream(postings).flatMapToInt(Arrays::stream).sorted().toArray();
+        return new Candidates(rows, 0, rows.length, null);
+    }
+
+    private int[] scanInOrder(Candidates candidates, EmployeeFilter filter, boolean descending, int limit) {
+        int[] matches = new int[Math.min(limit, candidates.size())];
+        int found = 0;
+        for (int i = 0; i < candidates.size() && found < matches.length; i++) {
+            int row = candidates.row(descending ? candidates.size() - 1 - i : i);
+            if (matches(row, filter)) {
+                matches[found++] = row;
+            }
+        }
+        return found == matches.length ? matches : Arrays.copyOf(matches, found);
+    }
+
+    private boolean matches(int row, EmployeeFilter filter) {
+        return inRange(snapshot.salary(row), filter.minSalary(), filter.maxSalary())
+                && inRange(snapshot.age(row), filter.minAge(), filter.maxAge())
+                && (filter.titles() == null
+                        || filter.titles().isEmpty()
+                        || filter.titles().contains(snapshot.title(row)));
+    }
+
+    private int[] sort(int[] rows, SortField sortField, boolean descending, int limit) {
+        int[] sorted;
+        if (sortField == SortField.NAME) {
+            Comparator<Integer> byName =
+                    Comparator.comparing(snapshot::name, Comparator.nullsLast(Comparator.naturalOrder()));
+            sorted = IntStream.of(rows)
+                    .boxed()
+                    .sorted(descending ? byName.reversed() : byName)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        } else if (sortField == null) {
+            sorted = rows.clone();
+            Arrays.sort(sorted);
+        } else {
+            IntUnaryOperator column = sortField == SortField.SALARY ? snapshot::salary : snapshot::age;
+            long[] keys = new long[rows.length];
+            for (int i = 0; i < rows.length; i++) {
+                keys[i] = SortedIndex.key(column.applyAsInt(rows[i]), rows[i]);
+            }
+            Arrays.sort(keys);
+            sorted = new int[rows.length];
+            for (int i = 0; i < keys.length; i++) {
+                sorted[descending ? keys.length - 1 - i : i] = SortedIndex.row(keys[i]);
+            }
+        }
+        return sorted.length > limit ? Arrays.copyOf(sorted, limit) : sorted;
+    }
+
+    private static boolean inRange(int value, Integer min, Integer max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != NULL_INT && (min == null || value >= min) && (max == null || value <= max);
+    }
+
+    private static Candidates smallest(Candidates current, Candidates other) {
+        return current == null || other.size() < current.size() ? other : current;
+    }
+
+    /**
+     * Gathers the index entries row by row, in snapshot order, typically while the snapshot itself is being built;
+     * only the sort of the salary and age keys is left for {@link #build(EmployeeSnapshot)}.
+     */
+    static final class Collector {
+        private long[] salaryKeys;
+        private long[] ageKeys;
+        private int size;
+        private int[][] titleRows = new int[16][];
+        private int[] titleCounts = new int[16];
+
+        Collector(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.salaryKeys = new long[capacity];
+            this.ageKeys = new long[capacity];
+        }
+
+        /**
+         * @param titleCode the dictionary code of the row's title, codes being handed out in order of first use
+         */
+        void add(int salary, int age, int titleCode) {
+            if (size == salaryKeys.length) {
+                salaryKeys = Arrays.copyOf(salaryKeys, size * 2);
+                ageKeys = Arrays.copyOf(ageKeys, size * 2);
+            }
+            salaryKeys[size] = SortedIndex.key(salary, size);
+            ageKeys[size] = SortedIndex.key(age, size);
+            if (titleCode != NULL_INT) {
+                if (titleCode >= titleRows.length) {
+                    titleRows = Arrays.copyOf(titleRows, Math.max(titleCode + 1, titleRows.length * 2));
+                    titleCounts = Arrays.copyOf(titleCounts, titleRows.length);
+                }
+                int[] rows = titleRows[titleCode];
+                int count = titleCounts[titleCode];
+                if (rows == null) {
+                    rows = titleRows[titleCode] = new int[2];
+                } else if (count == rows.length) {
+                    rows = titleRows[titleCode] = Arrays.copyOf(rows, count * 2);
+                }
+                rows[count] = size;
+                titleCounts[titleCode] = count + 1;
+            }
+            size++;
+        }
+
+        /**
+         * @param snapshot the snapshot built from the same rows
+         */
+        EmployeeIndexes build(EmployeeSnapshot snapshot) {
+            Map<String, int[]> rowsByTitle = new HashMap<>(snapshot.titleCount() * 2);
+            for (int code = 0; code < snapshot.titleCount(); code++) {
+                rowsByTitle.put(snapshot.titleForCode(code), Arrays.copyOf(titleRows[code], titleCounts[code]));
+            }
+            return new EmployeeIndexes(
+                    snapshot,
+                    SortedIndex.sort(Arrays.copyOf(salaryKeys, size)),
+                    SortedIndex.sort(Arrays.copyOf(ageKeys, size)),
+                    rowsByTitle);
+        }
+    }
+
+    /**
+     * A slice of candidate rows; {@code rows == null} stands for every row of the snapshot in snapshot order.
+     */
+    private record Candidates(int[] rows, int from, int to, SortField orderedBy) {
+        int size() {
+            return to - from;
+        }
+
+        int row(int index) {
+            return rows == null ? from + index : rows[from + index];
+        }
+    }
+
+    /**
+     * Rows sorted by one int column, ties in snapshot order. Rows without a value sort first and are skipped by every
+     * range.
+     */
+    private record SortedIndex(int[] values, int[] rows, int nulls) {
+        /**
+         * @param keys the {@link #key(int, int)} of every row, sorted in place
+         */
+        static SortedIndex sort(long[] keys) {
+            Arrays.parallelSort(keys);
+            int size = keys.length;
+            int[] values = new int[size];
+            int[] rows = new int[size];
+            int nulls = 0;
+            for (int i = 0; i < size; i++) {
+                values[i] = (int) (keys[i] >> 32);
+                rows[i] = row(keys[i]);
+                if (values[i] == NULL_INT) {
+                    nulls++;
+                }
+            }
+            return new SortedIndex(values, rows, nulls);
+        }
+
+        static long key(int value, int row) {
+            return ((long) value << 32) | row;
+        }
+
+        static int row(long key) {
+            return (int) key;
+        }
+
+        Candidates range(Integer min, Integer max, SortField field) {
+            int from = min == null ? nulls : firstAtLeast(min);
+            int to = max == null || max == Integer.MAX_VALUE ? values.length : firstAtLeast(max + 1);
+            return new Candidates(rows, from, Math.max(from, to), field);
+        }
+
+        Candidates all(SortField field) {
+            return new Candidates(rows, 0, rows.length, field);
+        }
+
+        private int firstAtLeast(int value) {
+            int low = nulls;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
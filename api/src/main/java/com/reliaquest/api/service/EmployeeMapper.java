@@ -1,6 +1,7 @@
 package com.reliaquest.api.service;
 
 import com.reliaquest.api.dto.Employee;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -10,7 +11,7 @@ import java.util.UUID;
 class EmployeeMapper {
     static Employee mapToEmployee(final RepositoryEmployee internalEmployee) {
         return new Employee(
-                UUID.fromString(internalEmployee.id()),
+                internalEmployee.id() != null ? UUID.fromString(internalEmployee.id()) : null,
                 internalEmployee.employee_name(),
                 internalEmployee.employee_salary(),
                 internalEmployee.employee_age(),
@@ -18,6 +19,20 @@ class EmployeeMapper {
                 internalEmployee.employee_email());
     }
 
+    static EmployeeSnapshot mapToSnapshot(final List<RepositoryEmployee> internalEmployees) {
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(internalEmployees.size());
+        for (RepositoryEmployee internalEmployee : internalEmployees) {
+            builder.add(
+                    UUID.fromString(internalEmployee.id()),
+                    internalEmployee.employee_name(),
+                    internalEmployee.employee_salary(),
+                    internalEmployee.employee_age(),
+                    internalEmployee.employee_title(),
+                    internalEmployee.employee_email());
+        }
+        return builder.build();
+    }
+
     static EmployeeCreate mapToRepositoryEmployee(final Employee inputEmployee) {
         return new EmployeeCreate(
                 inputEmployee.name(), inputEmployee.salary(), inputEmployee.age(), inputEmployee.title());
@@ -25,3 +40,5 @@ class EmployeeMapper {
 }
 
 record EmployeeCreate(String name, Integer salary, Integer age, String title) {}
+
+record EmployeeCreates(List<EmployeeCreate> employees) {}
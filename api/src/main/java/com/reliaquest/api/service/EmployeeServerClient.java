@@ -0,0 +1,414 @@
+package com.reliaquest.api.service;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+import com.reliaquest.api.dto.EmployeeFields;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Package protected access to the Mock Employee Server. Every call runs on the employee server executor, whose pool
+ * size caps how many calls are in flight, and is given up once the {@link RequestDeadline} of the incoming request or
+ * the per call timeout passes, whichever comes first.
+ * <p>
+ * The Employees can be spread over several Mock Employee Servers, listed in {@code employee.shards}. An Employee
+ * belongs to shard {@code floorMod(id.hashCode(), shards)}, the same rule the servers use to draw the ids of the
+ * Employees they create, so reads and deletes by id go to a single server, creates are spread round robin and every
+ * other read is sent to all the servers at once and gathered.
+ * <p>
+ * Idempotent reads can be hedged by {@link HedgedRequests}: when the answer takes longer than the 95th percentile of
+ * the recent answers, the same request is sent once more and the first answer wins.
+ * <p>
+ * A call the Mock Employee Server throttles (429) or fails (5xx) ends in an {@link UpstreamUnavailableException}
+ * telling when to retry: the server's own {@code Retry-After} when it sends one, otherwise as long as it has been
+ * unavailable so far, capped by {@code employee.client.max-retry-after}.
+ */
+@Component
+@Slf4j
+class EmployeeServerClient {
+    private static final ParameterizedTypeReference<Response<List<RepositoryEmployee>>> EMPLOYEES =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Response<RepositoryEmployee>> EMPLOYEE =
+            new ParameterizedTypeReference<>() {};
+    /*
+     * Sorted stably, so Employees of the same salary keep the order of the shards and of their rows, as in a snapshot.
+     */
+    private static final Comparator<RepositoryEmployee> BY_SALARY_DESCENDING = Comparator.comparing(
+            RepositoryEmployee::employee_salary, Comparator.nullsLast(Comparator.<Integer>reverseOrder()));
+
+    private final List<RestClient.Builder> shards;
+    private final AtomicInteger nextCreateShard = new AtomicInteger();
+    private final Executor executor;
+    private final Duration callTimeout;
+    private final HedgedRequests hedgedRequests;
+    private final Backoff backoff;
+
+    public EmployeeServerClient(
+            RestClient.Builder restClientBuilder,
+            @Value("${employee.shards:}") List<String> shards,
+            @Qualifier("employeeServerExecutor") Executor executor,
+            @Value("${employee.client.timeout:2s}") Duration callTimeout,
+            @Value("${employee.client.hedging.enabled:false}") boolean hedging,
+            @Value("${employee.client.hedging.min-delay:10ms}") Duration minHedgeDelay,
+            @Value("${employee.client.hedging.max-ratio:0.05}") double maxHedgeRatio,
+            @Value("${employee.client.max-retry-after:60s}") Duration maxRetryAfter) {
+        this.shards = shards.isEmpty()
+                ? List.of(restClientBuilder)
+                : shards.stream()
+                        .map(shard -> restClientBuilder.clone().baseUrl("http://" + shard))
+                        .toList();
+        this.executor = executor;
+        this.callTimeout = callTimeout;
+        this.hedgedRequests = new HedgedRequests(executor, hedging, minHedgeDelay, maxHedgeRatio);
+        this.backoff = new Backoff(maxRetryAfter);
+    }
+
+    /**
+     * @return the Employees of every shard, decoded from the raw answers straight into a snapshot.
+     */
+    EmployeeSnapshot fetchAllEmployees() {
+        return EmployeeSnapshotDecoder.decode(scatter("fetchAllEmployees", true, shard -> shard.build()
+                .get()
+                .uri("/api/v1/employee")
+                .accept(APPLICATION_JSON)
+                .retrieve()
+                .body(byte[].class)));
+    }
+
+    Response<RepositoryEmployee> fetchEmployee(String id) {
+        int shard = shardOf(id);
+        return await(
+                hedged("fetchEmployee@" + shard, () -> shards.get(shard)
+                        .build()
+                        .get()
+                        .uri("/api/v1/employee/{id}", id)
+                        .retrieve()
+                        .body(EMPLOYEE)),
+                timeout());
+    }
+
+    /**
+     * @return the Employee with the given id, or an empty Optional when the Mock Employee Server answers 404, without
+     * waiting for the answer. The future completes exceptionally when the Mock Employee Server fails or rejects the
+     * request.
+     */
+    CompletableFuture<Optional<RepositoryEmployee>> fetchEmployeeAsync(String id) {
+        RestClient.Builder shard = shards.get(shardOf(id));
+        return CompletableFuture.supplyAsync(
+                        () -> shard.build()
+                                .get()
+                                .uri("/api/v1/employee/{id}", id)
+                                .retrieve()
+                                .body(EMPLOYEE),
+                        executor)
+                .orTimeout(timeout().toNanos(), TimeUnit.NANOSECONDS)
+                .handle((response, failure) -> {
+                    Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                    if (cause instanceof RestClientResponseException answer && isUnavailable(answer)) {
+                        throw unavailable(answer);
+                    }
+                    if (cause instanceof HttpClientErrorException.NotFound) {
+                        log.info("Employee with ID {} Does Not Exist.", id);
+                        return Optional.empty();
+                    }
+                    if (cause instanceof TimeoutException) {
+                        throw new UpstreamTimeoutException(
+                                String.format("Employee with ID %s could not be obtained in time.", id));
+                    }
+                    if (cause != null) {
+                        throw new CompletionException(cause);
+                    }
+                    backoff.onAnswer();
+                    return Optional.ofNullable(response == null ? null : response.data());
+                });
+    }
+
+    /**
+     * @param fields the fields the servers answer with, the others are left out of their answers
+     */
+    Response<List<RepositoryEmployee>> searchEmployees(String name, EmployeeFields fields) {
+        String uri = fields.isAll()
+                ? "/api/v1/employee/search?name={name}"
+                : "/api/v1/employee/search?name={name}&fields={fields}";
+        return gatherEmployees(scatter("searchEmployees", false, shard -> shard.build()
+                .get()
+                .uri(uri, name, fields.toParameter())
+                .retrieve()
+                .body(EMPLOYEES)));
+    }
+
+    /**
+     * @return the {@code limit} best paid Employees, merged from the best paid Employees of every shard.
+     */
+    Response<List<RepositoryEmployee>> fetchTopEmployees(int limit) {
+        Response<List<RepositoryEmployee>> gathered =
+                gatherEmployees(scatter("fetchTopEmployees", false, shard -> shard.build()
+                        .get()
+                        .uri("/api/v1/employee/top?limit={limit}", limit)
+                        .retrieve()
+                        .body(EMPLOYEES)));
+        if (shards.size() == 1 || gathered.data() == null) {
+            return gathered;
+        }
+        return new Response<>(
+                gathered.data().stream()
+                        .sorted(BY_SALARY_DESCENDING)
+                        .limit(Math.max(limit, 0))
+                        .toList(),
+                gathered.status(),
+                gathered.error());
+    }
+
+    Response<Integer> fetchHighestSalary() {
+        List<Response<Integer>> responses = scatter("fetchHighestSalary", false, shard -> shard.build()
+                .get()
+                .uri("/api/v1/employee/highestSalary")
+                .retrieve()
+                .body(new ParameterizedTypeReference<Response<Integer>>() {}));
+        Optional<Response<Integer>> failed = firstFailure(responses);
+        if (failed.isPresent()) {
+            return failed.get();
+        }
+        Integer highest = responses.stream()
+                .map(Response::data)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new Response<>(highest, Response.Status.HANDLED, null);
+    }
+
+    Response<RepositoryEmployee> createEmployee(EmployeeCreate employeeCreate) {
+        RestClient.Builder shard = shards.get(Math.floorMod(nextCreateShard.getAndIncrement(), shards.size()));
+        return call(() -> shard.build()
+                .method(HttpMethod.POST)
+                .uri("/api/v1/employee")
+                .contentType(APPLICATION_JSON)
+                .body(employeeCreate)
+                .retrieve()
+                .body(EMPLOYEE));
+    }
+
+    /**
+     * Creates all the Employees with a single call, answered with the created Employees in the same order.
+     */
+    Response<List<RepositoryEmployee>> createEmployees(List<EmployeeCreate> employeeCreates) {
+        RestClient.Builder shard = shards.get(Math.floorMod(nextCreateShard.getAndIncrement(), shards.size()));
+        return call(() -> shard.build()
+                .method(HttpMethod.POST)
+                .uri("/api/v1/employee/bulk")
+                .contentType(APPLICATION_JSON)
+                .body(new EmployeeCreates(employeeCreates))
+                .retrieve()
+                .body(EMPLOYEES));
+    }
+
+    Response<Boolean> deleteEmployee(String id) {
+        RestClient.Builder shard = shards.get(shardOf(id));
+        return call(() -> shard.build()
+                .delete()
+                .uri("/api/v1/employee/{id}", id)
+                .retrieve()
+                .body(new ParameterizedTypeReference<Response<Boolean>>() {}));
+    }
+
+    /**
+     * Ids which are not UUIDs are not known to any server; they are sent to the first one, which answers as such.
+     */
+    private int shardOf(String id) {
+        try {
+            return Math.floorMod(UUID.fromString(id).hashCode(), shards.size());
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private <T> T call(Supplier<T> request) {
+        return await(CompletableFuture.supplyAsync(request, executor), timeout());
+    }
+
+    /**
+     * Sends the request to every shard at once and waits for all the answers, in shard order.
+     */
+    private <T> List<T> scatter(String operation, boolean hedge, Function<RestClient.Builder, T> request) {
+        List<CompletableFuture<T>> answers = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < shards.size(); shard++) {
+            RestClient.Builder builder = shards.get(shard);
+            answers.add(
+                    hedge
+                            ? hedged(operation + "@" + shard, () -> request.apply(builder))
+                            : CompletableFuture.supplyAsync(() -> request.apply(builder), executor));
+        }
+        return await(
+                CompletableFuture.allOf(answers.toArray(CompletableFuture[]::new))
+                        .thenApply(ignored ->
+                                answers.stream().map(CompletableFuture::join).toList()),
+                timeout());
+    }
+
+    private static Response<List<RepositoryEmployee>> gatherEmployees(
+            List<Response<List<RepositoryEmployee>>> responses) {
+        if (responses.size() == 1) {
+            return responses.get(0);
+        }
+        Optional<Response<List<RepositoryEmployee>>> failed = firstFailure(responses);
+        if (failed.isPresent()) {
+            return failed.get();
+        }
+        List<RepositoryEmployee> employees = new ArrayList<>();
+        responses.stream().map(Response::data).filter(Objects::nonNull).forEach(employees::addAll);
+        return new Response<>(employees, Response.Status.HANDLED, null);
+    }
+
+    private static <T> Optional<Response<T>> firstFailure(List<Response<T>> responses) {
+        return responses.stream()
+                .filter(response -> response == null || Response.Status.ERROR == response.status())
+                .findFirst();
+    }
+
+    private <T> CompletableFuture<T> hedged(String operation, Supplier<T> request) {
+        return hedgedRequests.send(operation, request, timeout());
+    }
+
+    private Duration timeout() {
+        return RequestDeadline.current()
+                .map(RequestDeadline::remaining)
+                .filter(remaining -> remaining.compareTo(callTimeout) < 0)
+                .orElse(callTimeout);
+    }
+
+    private <T> T await(CompletableFuture<T> future, Duration timeout) {
+        try {
+            T answer = future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            backoff.onAnswer();
+            return answer;
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new UpstreamTimeoutException(
+                    String.format("Mock Employee Server did not answer within %d ms.", timeout.toMillis()));
+        } catch (ExecutionException e) {
+            Throwable cause =
+                    e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+            if (cause instanceof RestClientResponseException answer && isUnavailable(answer)) {
+                throw unavailable(answer);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UpstreamTimeoutException("Interrupted while waiting for the Mock Employee Server.");
+        }
+    }
+
+    private static boolean isUnavailable(RestClientResponseException answer) {
+        return answer.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)
+                || answer.getStatusCode().is5xxServerError();
+    }
+
+    private UpstreamUnavailableException unavailable(RestClientResponseException answer) {
+        Duration retryAfter = backoff.onUnavailable(requestedRetryAfter(answer.getResponseHeaders()));
+        log.warn(
+                "Mock Employee Server answered {}, clients are asked to retry after {} s.",
+                answer.getStatusCode().value(),
+                retryAfter.toSeconds());
+        return new UpstreamUnavailableException(
+                String.format(
+                        "Mock Employee Server is unavailable (%d).",
+                        answer.getStatusCode().value()),
+                retryAfter,
+                answer);
+    }
+
+    /**
+     * @return the wait the Mock Employee Server asks for, given in seconds or as a date.
+     */
+    private static Optional<Duration> requestedRetryAfter(HttpHeaders headers) {
+        String retryAfter = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Duration.ofSeconds(Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                return Optional.of(Duration.between(
+                        Instant.now(), ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME)));
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Since when the Mock Employee Server has been throttling or failing the calls, reset by its next answer.
+     */
+    private static final class Backoff {
+        private static final Duration MIN_RETRY_AFTER = Duration.ofSeconds(1);
+        private final Duration maxRetryAfter;
+        private volatile boolean unavailable;
+        private long unavailableSinceNanos;
+
+        Backoff(Duration maxRetryAfter) {
+            this.maxRetryAfter = maxRetryAfter.compareTo(MIN_RETRY_AFTER) < 0 ? MIN_RETRY_AFTER : maxRetryAfter;
+        }
+
+        /**
+         * @return the wait asked for, or else how long the server has been unavailable, in whole seconds.
+         */
+        synchronized Duration onUnavailable(Optional<Duration> requested) {
+            long now = System.nanoTime();
+            if (!unavailable) {
+                unavailable = true;
+                unavailableSinceNanos = now;
+            }
+            Duration retryAfter = Duration.ofSeconds(requested
+                    .orElseGet(() -> Duration.ofNanos(now - unavailableSinceNanos))
+                    .plusNanos(999_999_999)
+                    .toSeconds());
+            if (retryAfter.compareTo(MIN_RETRY_AFTER) < 0) {
+                return MIN_RETRY_AFTER;
+            }
+            return retryAfter.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : retryAfter;
+        }
+
+        void onAnswer() {
+            if (unavailable) {
+                synchronized (this) {
+                    unavailable = false;
+                }
+            }
+        }
+    }
+}
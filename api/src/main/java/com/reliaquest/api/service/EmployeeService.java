@@ -1,175 +1,514 @@
 package com.reliaquest.api.service;
 
 import static java.util.stream.Collectors.toList;
-import static org.springframework.http.MediaType.APPLICATION_JSON;
 
 import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeFields;
+import com.reliaquest.api.dto.EmployeeFilter;
 import com.reliaquest.api.exceptions.EmployeeNotFoundException;
 import com.reliaquest.api.exceptions.UnableToObtainEmployeesException;
-import java.util.Comparator;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.UUID;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.HttpMethod;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.RestClient;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 /**
  * This service will handle the interaction with the Mock Employee Server to get the Data
  * served by the API Service.
+ * <p>
+ * The reads answered from the Employee snapshot keep answering while the Mock Employee Server throttles or fails,
+ * from the last snapshot loaded as long as it is at most {@code employee.max-staleness} old, with an {@code Age} and
+ * a {@code Warning} header telling the answer is stale.
+ * <p>
+ * Every request which has to wait for the Mock Employee Server goes through the {@link UpstreamBulkhead}; the reads
+ * answered from a cached snapshot do not, so they keep answering while it sheds requests.
  */
 @Service
 @Slf4j
 class EmployeeService implements IEmployeeService {
     private final EmployeeCacheService employeeCacheService;
-    private final RestClient.Builder restClientBuilder;
+    private final EmployeeServerClient employeeServerClient;
+    private final EmployeeCreateBatcher employeeCreateBatcher;
+    private final IdempotentCreates idempotentCreates;
+    private final UpstreamBulkhead upstreamBulkhead;
+    private final SearchResultCache searchResultCache;
+    private final UnknownEmployeeIds unknownEmployeeIds;
 
-    public EmployeeService(EmployeeCacheService employeeCacheService, RestClient.Builder restClientBuilder) {
+    public EmployeeService(
+            EmployeeCacheService employeeCacheService,
+            EmployeeServerClient employeeServerClient,
+            EmployeeCreateBatcher employeeCreateBatcher,
+            IdempotentCreates idempotentCreates,
+            UpstreamBulkhead upstreamBulkhead,
+            SearchResultCache searchResultCache,
+            UnknownEmployeeIds unknownEmployeeIds) {
         this.employeeCacheService = employeeCacheService;
-        this.restClientBuilder = restClientBuilder;
+        this.employeeServerClient = employeeServerClient;
+        this.employeeCreateBatcher = employeeCreateBatcher;
+        this.idempotentCreates = idempotentCreates;
+        this.upstreamBulkhead = upstreamBulkhead;
+        this.searchResultCache = searchResultCache;
+        this.unknownEmployeeIds = unknownEmployeeIds;
     }
 
     @Override
-    public List<Employee> getAllEmployees() {
-        return employeeCacheService.getAllEmployees();
+    public List<Employee> getAllEmployees(EmployeeFields fields) {
+        return snapshot().asEmployeeList(fields);
     }
 
+    /**
+     * Searches the cached snapshot when there is one, otherwise lets the Mock Employee Server search so a single
+     * query does not load every Employee; the server then only sends the fields asked for. The rows found in a
+     * snapshot are cached by fragment, so the frequent fragments are only searched once per snapshot.
+     */
     @Override
-    public List<Employee> getEmployeesByNameSearch(String nameFragment) {
-        return getAllEmployees().stream()
-                .filter(emp -> Objects.nonNull(emp.name()) && emp.name().contains(nameFragment))
+    public List<Employee> getEmployeesByNameSearch(String nameFragment, EmployeeFields fields) {
+        Function<EmployeeSnapshot, List<Employee>> search =
+                snapshot -> Arrays.stream(searchResultCache.rowsWithNameContaining(snapshot, nameFragment))
+                        .mapToObj(row -> snapshot.employee(row, fields))
+                        .collect(toList());
+        return employeeCacheService
+                .peekSnapshot()
+                .map(search)
+                .orElseGet(() -> orStale(
+                        () -> upstreamBulkhead.call(() ->
+                                fetchEmployees(employeeServerClient.searchEmployees(nameFragment, fields)).stream()
+                                        .map(EmployeeMapper::mapToEmployee)
+                                        .collect(toList())),
+                        search));
+    }
+
+    /**
+     * @return the Employees whose name is closest to the search string, ranked through the typo tolerant name index
+     * of the cached snapshot.
+     */
+    @Override
+    public List<Employee> getEmployeesByFuzzyNameSearch(
+            String searchString, int limit, Integer maxDistance, EmployeeFields fields) {
+        EmployeeSnapshot snapshot = snapshot();
+        NameFuzzyIndex index = snapshot.derived(NameFuzzyIndex.class, NameFuzzyIndex::build);
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        int[] rows = index.search(searchString, limit, maxDistance);
+        event.kind = "fuzzy";
+        event.fragmentLength = searchString.length();
+        event.hits = rows.length;
+        event.commit();
+        return Arrays.stream(rows)
+                .mapToObj(row -> snapshot.employee(row, fields))
                 .collect(toList());
     }
 
+    /**
+     * Answers the ids known not to exist, those a freshly loaded snapshot does not have or the Mock Employee Server
+     * recently answered 404 for, without calling it.
+     */
     @Override
     public Employee getEmployeeById(String id) {
+        if (unknownEmployeeIds.isUnknown(id, employeeCacheService.peekSnapshot())) {
+            var msg = String.format("Employee with ID %s Does Not Exist.", id);
+            log.info(msg);
+            throw new EmployeeNotFoundException(msg);
+        }
         Response<RepositoryEmployee> response = null;
         try {
-            response = restClientBuilder
-                    .build()
-                    .get()
-                    .uri("/api/v1/employee/{id}", id)
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
+            response = upstreamBulkhead.call(() -> employeeServerClient.fetchEmployee(id));
             if (response.data() == null) {
                 var msg = String.format("Employee with ID %s Does Not Exist.", id);
                 log.info(msg);
                 throw new EmployeeNotFoundException(msg);
             }
-        } catch (HttpClientErrorException e) {
+        } catch (HttpClientErrorException.NotFound e) {
+            unknownEmployeeIds.rememberUnknown(id);
             var msg = String.format("Employee with ID %s Does Not Exist.", id);
             log.info(msg);
             throw new EmployeeNotFoundException(msg, e);
-        } catch (HttpServerErrorException e) {
-            log.error("Got an error from MockEmployeeService : {}", response.error());
-            throw new UnableToObtainEmployeesException("Employee could not be obtained due to an error.");
+        } catch (HttpClientErrorException e) {
+            log.error("Got an error from MockEmployeeService : {}", e.getMessage());
+            throw new UnableToObtainEmployeesException(
+                    String.format("Employee with ID %s could not be obtained due to an error.", id));
         }
         return EmployeeMapper.mapToEmployee(response.data());
     }
 
+    /**
+     * Looks up all the Employees at once, fanning the lookups out to the Mock Employee Server concurrently. Every
+     * lookup is charged to the upstream quota of the client.
+     *
+     * @return the Employees found, in the order of their first id; unknown ids are left out.
+     */
     @Override
-    @CacheEvict(value = "employees", allEntries = true)
-    public String attemptToDeleteEmployeeWithId(String id) {
-        Employee employeeToDelete = getEmployeeById(id);
-        List<Employee> deleteCandidateEmployees = getEmployeesByExactNameMatch(employeeToDelete.name());
-        if (deleteCandidateEmployees.size() == 1
-                && deleteCandidateEmployees.get(0).id().equals(UUID.fromString(id))) {
-            Response<Boolean> response = restClientBuilder
-                    .build()
-                    .method(HttpMethod.DELETE)
-                    .uri("/api/v1/employee")
-                    .contentType(APPLICATION_JSON)
-                    .body(new DeleteRequest(employeeToDelete.name()))
-                    .retrieve()
-                    .body(new ParameterizedTypeReference<>() {});
-            if (response != null && response.data() != null && response.data()) {
-                return null;
-            } else {
-                String msg = String.format("Employee with id %s was NOT DELETED", id);
-                log.error(msg);
-                return msg;
+    public List<Employee> getEmployeesByIds(List<String> ids) {
+        Optional<EmployeeSnapshot> snapshot = employeeCacheService.peekSnapshot();
+        List<String> lookedUp = ids.stream()
+                .distinct()
+                .filter(id -> !unknownEmployeeIds.isUnknown(id, snapshot))
+                .toList();
+        if (lookedUp.isEmpty()) {
+            return List.of();
+        }
+        return upstreamBulkhead.call(lookedUp.size(), () -> fetchEmployeesByIds(lookedUp));
+    }
+
+    private List<Employee> fetchEmployeesByIds(List<String> ids) {
+        List<CompletableFuture<Optional<RepositoryEmployee>>> lookups =
+                ids.stream().map(employeeServerClient::fetchEmployeeAsync).toList();
+        try {
+            CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UpstreamTimeoutException
+                    || e.getCause() instanceof UpstreamUnavailableException) {
+                throw (RuntimeException) e.getCause();
             }
+            log.error("Got an error from MockEmployeeService : {}", e.getCause().getMessage());
+            throw new UnableToObtainEmployeesException("Employees could not be obtained due to an error.");
         }
-        log.warn(
-                "MockEmployeeController supports deletion by name only but we have {} employees that have the same name {} as the employee id {}",
-                deleteCandidateEmployees.size(),
-                employeeToDelete.name(),
-                id);
-        return "API currently does not support delete for this employee. Please reach out to App Support.";
+        return lookups.stream()
+                .map(CompletableFuture::join)
+                .flatMap(Optional::stream)
+                .map(EmployeeMapper::mapToEmployee)
+                .collect(toList());
     }
 
+    /**
+     * Deletes the Employee with a single call to the Mock Employee Server which deletes by id, so Employees sharing
+     * the same name can be deleted as well.
+     */
     @Override
     @CacheEvict(value = "employees", allEntries = true)
+    public String attemptToDeleteEmployeeWithId(String id) {
+        Response<Boolean> response;
+        try {
+            response = upstreamBulkhead.call(() -> employeeServerClient.deleteEmployee(id));
+        } catch (HttpClientErrorException.NotFound e) {
+            unknownEmployeeIds.rememberUnknown(id);
+            var msg = String.format("Employee with ID %s Does Not Exist.", id);
+            log.info(msg);
+            throw new EmployeeNotFoundException(msg, e);
+        }
+        if (response != null && Boolean.TRUE.equals(response.data())) {
+            return null;
+        }
+        String msg = String.format("Employee with id %s was NOT DELETED", id);
+        log.error(msg);
+        return msg;
+    }
+
+    /**
+     * Creates the Employee, or answers with the Employee created before when the request repeats the
+     * {@link IdempotencyKey} of an earlier create.
+     */
+    @Override
     public Employee createEmployee(Employee employeeInput) {
         EmployeeCreate employeeCreatePayload = EmployeeMapper.mapToRepositoryEmployee(employeeInput);
-        Response<RepositoryEmployee> response = restClientBuilder
-                .build()
-                .method(HttpMethod.POST)
-                .uri("/api/v1/employee")
-                .contentType(APPLICATION_JSON)
-                .body(employeeCreatePayload)
-                .retrieve()
-                .body(new ParameterizedTypeReference<>() {});
-        return EmployeeMapper.mapToEmployee(response.data());
+        Supplier<Employee> create = () -> upstreamBulkhead.call(() -> {
+            Employee created = EmployeeMapper.mapToEmployee(employeeCreateBatcher.create(employeeCreatePayload));
+            unknownEmployeeIds.rememberCreated(created.id());
+            return created;
+        });
+        return IdempotencyKey.current()
+                .map(key -> idempotentCreates.create(key, employeeCreatePayload, create))
+                .orElseGet(create);
     }
 
     @Override
     public OptionalInt getHighestSalary() {
-        return getAllEmployees().stream().mapToInt(Employee::salary).max();
+        Optional<EmployeeSnapshot> cached = employeeCacheService.peekSnapshot();
+        if (cached.isPresent()) {
+            return highestSalary(cached.get());
+        }
+        return orStale(
+                () -> {
+                    Response<Integer> response = upstreamBulkhead.call(employeeServerClient::fetchHighestSalary);
+                    if (response == null || Response.Status.ERROR == response.status()) {
+                        throw new UnableToObtainEmployeesException(
+                                "Highest salary could not be obtained due to an error.");
+                    }
+                    return response.data() == null ? OptionalInt.empty() : OptionalInt.of(response.data());
+                },
+                EmployeeService::highestSalary);
     }
 
     @Override
     public List<String> getTopHighestEarningNames(int number) {
-        return getAllEmployees().stream()
-                .sorted(Comparator.comparing(Employee::salary).reversed())
-                .limit(number)
-                .map(Employee::name)
+        Function<EmployeeSnapshot, List<String>> top = snapshot -> Arrays.stream(snapshot.topRowsBySalary(number))
+                .mapToObj(snapshot::name)
+                .collect(toList());
+        return employeeCacheService
+                .peekSnapshot()
+                .map(top)
+                .orElseGet(() -> orStale(
+                        () -> upstreamBulkhead.call(
+                                () -> fetchEmployees(employeeServerClient.fetchTopEmployees(number)).stream()
+                                        .map(RepositoryEmployee::employee_name)
+                                        .collect(toList())),
+                        top));
+    }
+
+    /**
+     * @return analytics over the cached snapshot, computed once per snapshot version.
+     */
+    @Override
+    public EmployeeAnalytics getAnalytics() {
+        return snapshot().derived(EmployeeAnalytics.class, EmployeeAnalyticsCalculator::calculate);
+    }
+
+    /**
+     * @return the Employees matching the filter, planned against the secondary indexes of the cached snapshot.
+     */
+    @Override
+    public List<Employee> getEmployeesByFilter(EmployeeFilter filter, EmployeeFields fields) {
+        EmployeeSnapshot snapshot = snapshot();
+        EmployeeIndexes indexes = snapshot.derived(EmployeeIndexes.class, EmployeeIndexes::build);
+        return Arrays.stream(indexes.filter(filter))
+                .mapToObj(row -> snapshot.employee(row, fields))
                 .collect(toList());
     }
 
+    @Override
+    public OptionalLong getSnapshotVersion() {
+        return employeeCacheService
+                .peekSnapshot()
+                .map(snapshot -> OptionalLong.of(snapshot.version()))
+                .orElseGet(OptionalLong::empty);
+    }
+
     @CacheEvict(value = "employees", allEntries = true)
     public void restEmployeeCache() {
+        unknownEmployeeIds.clear();
         log.info("Removed the Employee Cache.");
     }
 
-    private List<Employee> getEmployeesByExactNameMatch(String nameFragment) {
-        return getAllEmployees().stream()
-                .filter(emp -> Objects.nonNull(emp.name()) && emp.name().equalsIgnoreCase(nameFragment))
-                .collect(toList());
+    /**
+     * @return the cached snapshot, loaded when there is none, or the last snapshot loaded when it cannot be.
+     */
+    private EmployeeSnapshot snapshot() {
+        return employeeCacheService
+                .peekSnapshot()
+                .orElseGet(() ->
+                        orStale(() -> upstreamBulkhead.call(employeeCacheService::getSnapshot), Function.identity()));
     }
 
-    record DeleteRequest(String name) {}
+    /**
+     * @return the answer of the Mock Employee Server, or when it cannot answer, the same answer computed from the
+     * last snapshot loaded, as long as it is recent enough.
+     */
+    private <T> T orStale(Supplier<T> read, Function<EmployeeSnapshot, T> readStale) {
+        try {
+            return read.get();
+        } catch (UpstreamUnavailableException
+                | UpstreamTimeoutException
+                | UnableToObtainEmployeesException
+                | ResourceAccessException e) {
+            EmployeeSnapshot stale = employeeCacheService.lastGoodSnapshot().orElseThrow(() -> e);
+            long age = Duration.between(stale.loadedAt(), Instant.now()).toSeconds();
+            log.warn("Answering from the Employees loaded {} s ago: {}", age, e.getMessage());
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                    && attributes.getResponse() != null) {
+                attributes.getResponse().setHeader(HttpHeaders.AGE, String.valueOf(Math.max(age, 0)));
+                attributes.getResponse().setHeader(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+            }
+            return readStale.apply(stale);
+        }
+    }
+
+    private static OptionalInt highestSalary(EmployeeSnapshot snapshot) {
+        int highestSalary = snapshot.maxSalary();
+        return highestSalary == EmployeeSnapshot.NULL_INT ? OptionalInt.empty() : OptionalInt.of(highestSalary);
+    }
+
+    private static List<RepositoryEmployee> fetchEmployees(Response<List<RepositoryEmployee>> response) {
+        if (response == null || Response.Status.ERROR == response.status()) {
+            throw new UnableToObtainEmployeesException("Employees could not be obtained due to an error.");
+        }
+        return response.data() != null ? response.data() : List.of();
+    }
 }
 
 @Service
 @Slf4j
 class EmployeeCacheService {
-    private final RestClient.Builder restClientBuilder;
+    private static final Duration FIRST_REVALIDATION_RETRY = Duration.ofSeconds(1);
+    private static final Duration MAX_REVALIDATION_RETRY = Duration.ofSeconds(30);
+
+    private final EmployeeServerClient employeeServerClient;
+    private final CacheManager cacheManager;
+    private final EmployeeSnapshotStore employeeSnapshotStore;
+    private final Executor executor;
+    private final Duration maxStaleness;
+    private final AtomicReference<EmployeeSnapshot> lastGood = new AtomicReference<>();
 
-    public EmployeeCacheService(RestClient.Builder restClientBuilder) {
-        this.restClientBuilder = restClientBuilder;
+    public EmployeeCacheService(
+            EmployeeServerClient employeeServerClient,
+            CacheManager cacheManager,
+            EmployeeSnapshotStore employeeSnapshotStore,
+            @Qualifier("employeeSnapshotExecutor") Executor executor,
+            @Value("${employee.max-staleness:5m}") Duration maxStaleness) {
+        this.employeeServerClient = employeeServerClient;
+        this.cacheManager = cacheManager;
+        this.employeeSnapshotStore = employeeSnapshotStore;
+        this.executor = executor;
+        this.maxStaleness = maxStaleness;
     }
 
+    /**
+     * @return the cached snapshot without loading it from the Mock Employee Server when there is none.
+     */
+    public Optional<EmployeeSnapshot> peekSnapshot() {
+        return Optional.ofNullable(cacheManager.getCache("employees"))
+                .map(cache -> cache.get(SimpleKey.EMPTY, EmployeeSnapshot.class));
+    }
+
+    /**
+     * @return the columnar snapshot of all the Employees, cached until the next create or delete.
+     */
     @Cacheable(value = "employees")
-    public List<Employee> getAllEmployees() {
+    public EmployeeSnapshot getSnapshot() {
         log.info("Called Get All Employees Cached.");
-        var response = restClientBuilder
-                .build()
-                .get()
-                .uri("/api/v1/employee")
-                .retrieve()
-                .body(new ParameterizedTypeReference<Response<List<RepositoryEmployee>>>() {});
-        if (Response.Status.ERROR == response.status()) {
-            throw new UnableToObtainEmployeesException("Employees could not be obtained due to an error.");
+        EmployeeSnapshot snapshot = employeeServerClient.fetchAllEmployees();
+        remember(snapshot);
+        employeeSnapshotStore.save(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * @return the snapshot loaded last, even when it has been evicted since, unless it is older than
+     * {@code max-staleness}.
+     */
+    public Optional<EmployeeSnapshot> lastGoodSnapshot() {
+        Instant oldest = Instant.now().minus(maxStaleness);
+        return Optional.ofNullable(lastGood.get())
+                .filter(snapshot -> !snapshot.loadedAt().isBefore(oldest));
+    }
+
+    public void evictSnapshot() {
+        Optional.ofNullable(cacheManager.getCache("employees")).ifPresent(Cache::clear);
+        log.debug("Evicted the Employee snapshot.");
+    }
+
+    /**
+     * Caches the snapshot saved to disk by the previous run, so the Employees are served right away, and replaces it
+     * in the background with a fresh one from the Mock Employee Server. While the Mock Employee Server fails, the
+     * restored snapshot is revalidated again with a doubling delay, and evicted once older than {@code max-staleness}.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void restoreSnapshot() {
+        Cache cache = cacheManager.getCache("employees");
+        if (cache == null) {
+            return;
+        }
+        employeeSnapshotStore.load().ifPresent(restored -> {
+            cache.put(SimpleKey.EMPTY, restored);
+            remember(restored);
+            log.info("Restored {} Employees saved at {}.", restored.size(), restored.loadedAt());
+            executor.execute(() -> revalidate(cache, restored, FIRST_REVALIDATION_RETRY));
+        });
+    }
+
+    private void revalidate(Cache cache, EmployeeSnapshot restored, Duration retryAfter) {
+        EmployeeSnapshot fresh;
+        try {
+            fresh = employeeServerClient.fetchAllEmployees();
+        } catch (RuntimeException e) {
+            retryRevalidation(cache, restored, retryAfter, e);
+            return;
+        }
+        remember(fresh);
+        if (replace(cache, restored, fresh)) {
+            employeeSnapshotStore.save(fresh);
+            log.info("Revalidated the restored Employees, now {}.", fresh.size());
+        }
+    }
+
+    /**
+     * Retries no later than when the restored snapshot gets too old, and evicts it then, so the next read loads the
+     * Employees from the Mock Employee Server or fails instead of serving them stale.
+     */
+    private void retryRevalidation(Cache cache, EmployeeSnapshot restored, Duration retryAfter, RuntimeException e) {
+        if (peekSnapshot().filter(restored::equals).isEmpty()) {
+            return;
+        }
+        Duration untilStale =
+                Duration.between(Instant.now(), restored.loadedAt().plus(maxStaleness));
+        if (untilStale.isNegative() || untilStale.isZero()) {
+            if (evict(cache, restored)) {
+                log.warn(
+                        "Could not revalidate the restored Employees, evicted them as older than {}.", maxStaleness, e);
+            }
+            return;
+        }
+        Duration delay = retryAfter.compareTo(untilStale) < 0 ? retryAfter : untilStale;
+        log.warn("Could not revalidate the restored Employees, retrying in {} ms: {}", delay.toMillis(), e.toString());
+        Duration nextRetryAfter = retryAfter.multipliedBy(2);
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, executor)
+                .execute(() -> revalidate(
+                        cache,
+                        restored,
+                        nextRetryAfter.compareTo(MAX_REVALIDATION_RETRY) < 0
+                                ? nextRetryAfter
+                                : MAX_REVALIDATION_RETRY));
+    }
+
+    private void remember(EmployeeSnapshot snapshot) {
+        lastGood.accumulateAndGet(
+                snapshot, (last, loaded) -> last == null || loaded.loadedAt().isAfter(last.loadedAt()) ? loaded : last);
+    }
+
+    /**
+     * Replaces the restored snapshot only while it is still cached: a create or delete since the restore evicted it,
+     * and the next read loads a snapshot which includes the change.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean replace(Cache cache, EmployeeSnapshot restored, EmployeeSnapshot fresh) {
+        if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> entries) {
+            return ((ConcurrentMap<Object, Object>) entries).replace(SimpleKey.EMPTY, restored, fresh);
+        }
+        if (peekSnapshot().filter(restored::equals).isEmpty()) {
+            return false;
+        }
+        cache.put(SimpleKey.EMPTY, fresh);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean evict(Cache cache, EmployeeSnapshot restored) {
+        if (cache.getNativeCache() instanceof ConcurrentMap<?, ?> entries) {
+            return ((ConcurrentMap<Object, Object>) entries).remove(SimpleKey.EMPTY, restored);
+        }
+        if (peekSnapshot().filter(restored::equals).isEmpty()) {
+            return false;
         }
-        List<RepositoryEmployee> employees = response.data() != null ? response.data() : List.of();
-        return employees.stream().map(EmployeeMapper::mapToEmployee).toList();
+        cache.evict(SimpleKey.EMPTY);
+        return true;
     }
 }
@@ -0,0 +1,514 @@
+package com.reliaquest.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeFields;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Package protected, immutable and columnar representation of all the Employees obtained from the Mock Employee
+ * Server. Instead of holding one {@link Employee} record per row (UUID, three Strings and two boxed Integers) the
+ * columns are stored in primitive arrays:
+ * <ul>
+ *     <li>ids as pairs of longs</li>
+ *     <li>salary and age as ints, {@link #NULL_INT} standing in for a missing value</li>
+ *     <li>titles dictionary encoded, as there are far fewer distinct titles than employees</li>
+ *     <li>names and emails packed as UTF-8 in a single byte array each</li>
+ * </ul>
+ * {@link Employee} instances are only materialized on access, typically while the list view returned by
+ * {@link #asEmployeeList()} is being serialized.
+ */
+final class EmployeeSnapshot {
+    static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final int MAGIC = 0x454D5053; // "EMPS"
+    private static final int FORMAT = 1;
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final long version;
+    private final Instant loadedAt;
+    private final int size;
+    private final long[] idMostSignificantBits;
+    private final long[] idLeastSignificantBits;
+    private final int[] salaries;
+    private final int[] ages;
+    private final String[] titleDictionary;
+    private final int[] titleCodes;
+    private final PackedStrings names;
+    private final PackedStrings emails;
+    private final int minSalary;
+    private final int maxSalary;
+    private final int minAge;
+    private final int maxAge;
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+
+    private EmployeeSnapshot(Builder builder) {
+        this.version = VERSIONS.incrementAndGet();
+        this.loadedAt = Instant.now();
+        this.size = builder.size;
+        this.idMostSignificantBits = Arrays.copyOf(builder.idMostSignificantBits, size);
+        this.idLeastSignificantBits = Arrays.copyOf(builder.idLeastSignificantBits, size);
+        this.salaries = Arrays.copyOf(builder.salaries, size);
+        this.ages = Arrays.copyOf(builder.ages, size);
+        this.titleDictionary = new String[builder.titleDictionary.size()];
+        builder.titleDictionary.forEach((title, code) -> titleDictionary[code] = title);
+        this.titleCodes = Arrays.copyOf(builder.titleCodes, size);
+        this.names = builder.names.build();
+        this.emails = builder.emails.build();
+        this.minSalary = builder.minSalary;
+        this.maxSalary = builder.maxSalary;
+        this.minAge = builder.minAge;
+        this.maxAge = builder.maxAge;
+    }
+
+    private EmployeeSnapshot(ByteBuffer buffer) {
+        this.version = VERSIONS.incrementAndGet();
+        this.loadedAt = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+        this.size = buffer.getInt();
+        this.idMostSignificantBits = PackedStrings.getLongs(buffer, size);
+        this.idLeastSignificantBits = PackedStrings.getLongs(buffer, size);
+        this.salaries = PackedStrings.getInts(buffer, size);
+        this.ages = PackedStrings.getInts(buffer, size);
+        this.titleDictionary = new String[buffer.getInt()];
+        for (int code = 0; code < titleDictionary.length; code++) {
+            byte[] title = new byte[buffer.getInt()];
+            buffer.get(title);
+            titleDictionary[code] = new String(title, UTF_8);
+        }
+        this.titleCodes = PackedStrings.getInts(buffer, size);
+        this.names = PackedStrings.readFrom(buffer);
+        this.emails = PackedStrings.readFrom(buffer);
+        this.minSalary = buffer.getInt();
+        this.maxSalary = buffer.getInt();
+        this.minAge = buffer.getInt();
+        this.maxAge = buffer.getInt();
+    }
+
+    static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    static EmployeeSnapshot empty() {
+        return builder(0).build();
+    }
+
+    /**
+     * @return a number unique to this snapshot which increases with every snapshot built.
+     */
+    long version() {
+        return version;
+    }
+
+    Instant loadedAt() {
+        return loadedAt;
+    }
+
+    int size() {
+        return size;
+    }
+
+    UUID id(int row) {
+        return new UUID(idMostSignificantBits[row], idLeastSignificantBits[row]);
+    }
+
+    String name(int row) {
+        return names.get(row);
+    }
+
+    /**
+     * @return the raw salary of the row, {@link #NULL_INT} when the Employee has no salary.
+     */
+    int salary(int row) {
+        return salaries[row];
+    }
+
+    /**
+     * @return the raw age of the row, {@link #NULL_INT} when the Employee has no age.
+     */
+    int age(int row) {
+        return ages[row];
+    }
+
+    String title(int row) {
+        int code = titleCodes[row];
+        return code == NULL_INT ? null : titleDictionary[code];
+    }
+
+    /**
+     * @return the dictionary code of the row's title, {@link #NULL_INT} when the Employee has no title.
+     */
+    int titleCode(int row) {
+        return titleCodes[row];
+    }
+
+    int titleCount() {
+        return titleDictionary.length;
+    }
+
+    String titleForCode(int code) {
+        return titleDictionary[code];
+    }
+
+    /**
+     * @return the lowest salary, {@link #NULL_INT} when no Employee has a salary.
+     */
+    int minSalary() {
+        return minSalary;
+    }
+
+    /**
+     * @return the highest salary, {@link #NULL_INT} when no Employee has a salary.
+     */
+    int maxSalary() {
+        return maxSalary;
+    }
+
+    /**
+     * @return the lowest age, {@link #NULL_INT} when no Employee has an age.
+     */
+    int minAge() {
+        return minAge;
+    }
+
+    /**
+     * @return the highest age, {@link #NULL_INT} when no Employee has an age.
+     */
+    int maxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Memoizes data derived from this snapshot, such as statistics or indexes, so it is computed at most once per
+     * snapshot version and released together with the snapshot. Each computation is recorded as a
+     * {@link FlightEvents.IndexBuild}.
+     *
+     * @param type the type of the derived data, used as its key
+     * @param factory computes the derived data from this snapshot
+     */
+    <T> T derived(Class<T> type, Function<EmployeeSnapshot, T> factory) {
+        return type.cast(derived.computeIfAbsent(type, ignored -> {
+            FlightEvents.IndexBuild event = new FlightEvents.IndexBuild();
+            event.begin();
+            T built = factory.apply(this);
+            event.index = type.getSimpleName();
+            event.rows = size;
+            event.version = version;
+            event.commit();
+            return built;
+        }));
+    }
+
+    String email(int row) {
+        return emails.get(row);
+    }
+
+    Employee employee(int row) {
+        return new Employee(id(row), name(row), boxed(salaries[row]), boxed(ages[row]), title(row), email(row));
+    }
+
+    /**
+     * @return the Employee of the row with only the given fields, the others left null and never decoded.
+     */
+    Employee employee(int row, EmployeeFields fields) {
+        if (fields.isAll()) {
+            return employee(row);
+        }
+        return new Employee(
+                fields.contains(EmployeeFields.Field.ID) ? id(row) : null,
+                fields.contains(EmployeeFields.Field.NAME) ? name(row) : null,
+                fields.contains(EmployeeFields.Field.SALARY) ? boxed(salaries[row]) : null,
+                fields.contains(EmployeeFields.Field.AGE) ? boxed(ages[row]) : null,
+                fields.contains(EmployeeFields.Field.TITLE) ? title(row) : null,
+                fields.contains(EmployeeFields.Field.EMAIL) ? email(row) : null);
+    }
+
+    /**
+     * @return a read only view over the snapshot which creates each {@link Employee} when it is accessed.
+     */
+    List<Employee> asEmployeeList() {
+        return asEmployeeList(EmployeeFields.ALL);
+    }
+
+    /**
+     * @return a read only view over the snapshot which creates each {@link Employee}, with only the given fields,
+     * when it is accessed.
+     */
+    List<Employee> asEmployeeList(EmployeeFields fields) {
+        return new EmployeeListView(fields);
+    }
+
+    /**
+     * @param fragment case-sensitive fragment of the name
+     * @return the rows whose name contains the fragment, in snapshot order.
+     */
+    int[] rowsWithNameContaining(String fragment) {
+        byte[] needle = fragment.getBytes(UTF_8);
+        int[] rows = new int[16];
+        int found = 0;
+        for (int row = 0; row < size; row++) {
+            if (names.contains(row, needle)) {
+                if (found == rows.length) {
+                    rows = Arrays.copyOf(rows, found * 2);
+                }
+                rows[found++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, found);
+    }
+
+    /**
+     * Selects the rows with the highest salaries without sorting the whole snapshot. Rows with the same salary keep
+     * their snapshot order, the same as a stable sort by descending salary would.
+     *
+     * @param number the maximum number of rows to return
+     * @return the rows ordered by descending salary.
+     */
+    int[] topRowsBySalary(int number) {
+        int limit = Math.min(Math.max(number, 0), size);
+        // Min heap on (salary, -row) so the head is always the weakest of the current top rows.
+        PriorityQueue<Integer> heap = new PriorityQueue<>(
+                Math.max(1, limit),
+                (a, b) ->
+                        salaries[a] != salaries[b] ? Integer.compare(salaries[a], salaries[b]) : Integer.compare(b, a));
+        for (int row = 0; row < size && limit > 0; row++) {
+            if (salaries[row] == NULL_INT) {
+                continue;
+            }
+            if (heap.size() < limit) {
+                heap.add(row);
+            } else if (salaries[row] > salaries[heap.peek()]) {
+                heap.poll();
+                heap.add(row);
+            }
+        }
+        int[] rows = new int[heap.size()];
+        for (int i = rows.length - 1; i >= 0; i--) {
+            rows[i] = heap.poll();
+        }
+        return rows;
+    }
+
+    /**
+     * @return an estimate of the heap retained by this snapshot in bytes, assuming compressed oops.
+     */
+    long footprintBytes() {
+        long titles = PackedStrings.arrayBytes(4L * titleDictionary.length);
+        for (String title : titleDictionary) {
+            titles += 24 + PackedStrings.arrayBytes(title.length());
+        }
+        return PackedStrings.arrayBytes(8L * size) * 2
+                + PackedStrings.arrayBytes(4L * size) * 3
+                + titles
+                + names.footprintBytes()
+                + emails.footprintBytes();
+    }
+
+    /**
+     * @return the number of bytes {@link #writeTo(ByteBuffer)} writes.
+     */
+    int serializedSize() {
+        int titles = 4;
+        for (String title : titleDictionary) {
+            titles += 4 + title.getBytes(UTF_8).length;
+        }
+        return 4
+                + 4
+                + 8
+                + 4
+                + 4
+                + 16 * size
+                + 12 * size
+                + titles
+                + names.serializedSize()
+                + emails.serializedSize()
+                + 16;
+    }
+
+    /**
+     * Writes the columns as they are held in memory, so {@link #readFrom(ByteBuffer)} only has to copy them back. The
+     * snapshot keeps its load time but gets a new version when it is read.
+     */
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(MAGIC).putInt(FORMAT);
+        buffer.putLong(loadedAt.getEpochSecond()).putInt(loadedAt.getNano());
+        buffer.putInt(size);
+        PackedStrings.putLongs(buffer, idMostSignificantBits);
+        PackedStrings.putLongs(buffer, idLeastSignificantBits);
+        PackedStrings.putInts(buffer, salaries);
+        PackedStrings.putInts(buffer, ages);
+        buffer.putInt(titleDictionary.length);
+        for (String title : titleDictionary) {
+            byte[] encoded = title.getBytes(UTF_8);
+            buffer.putInt(encoded.length).put(encoded);
+        }
+        PackedStrings.putInts(buffer, titleCodes);
+        names.writeTo(buffer);
+        emails.writeTo(buffer);
+        buffer.putInt(minSalary).putInt(maxSalary).putInt(minAge).putInt(maxAge);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the buffer does not hold a snapshot written in the current format.
+     */
+    static EmployeeSnapshot readFrom(ByteBuffer buffer) {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+            throw new IllegalArgumentException("Not an employee snapshot in format " + FORMAT + ".");
+        }
+        return new EmployeeSnapshot(buffer);
+    }
+
+    private static Integer boxed(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private final class EmployeeListView extends AbstractList<Employee> implements RandomAccess {
+        private final EmployeeFields fields;
+
+        EmployeeListView(EmployeeFields fields) {
+            this.fields = fields;
+        }
+
+        @Override
+        public Employee get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return employee(index, fields);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    static final class Builder {
+        private int size;
+        private long[] idMostSignificantBits;
+        private long[] idLeastSignificantBits;
+        private int[] salaries;
+        private int[] ages;
+        private int[] titleCodes;
+        private final Map<String, Integer> titleDictionary = new HashMap<>();
+        private final PackedStrings.Builder names;
+        private final PackedStrings.Builder emails;
+        private int minSalary = NULL_INT;
+        private int maxSalary = NULL_INT;
+        private int minAge = NULL_INT;
+        private int maxAge = NULL_INT;
+        private EmployeeIndexes.Collector indexes;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.idMostSignificantBits = new long[capacity];
+            this.idLeastSignificantBits = new long[capacity];
+            this.salaries = new int[capacity];
+            this.ages = new int[capacity];
+            this.titleCodes = new int[capacity];
+            this.names = new PackedStrings.Builder(capacity);
+            this.emails = new PackedStrings.Builder(capacity);
+        }
+
+        Builder add(UUID id, String name, Integer salary, Integer age, String title, String email) {
+            return add(
+                    id.getMostSignificantBits(),
+                    id.getLeastSignificantBits(),
+                    name,
+                    salary == null ? NULL_INT : salary,
+                    age == null ? NULL_INT : age,
+                    title,
+                    email);
+        }
+
+        /**
+         * @param name the name, copied so the sequence may be reused once this returns
+         * @param salary the salary, {@link #NULL_INT} when the Employee has none
+         * @param age the age, {@link #NULL_INT} when the Employee has none
+         * @param email the email, copied so the sequence may be reused once this returns
+         */
+        Builder add(
+                long idMostSignificantBits,
+                long idLeastSignificantBits,
+                CharSequence name,
+                int salary,
+                int age,
+                String title,
+                CharSequence email) {
+            if (size == salaries.length) {
+                grow();
+            }
+            this.idMostSignificantBits[size] = idMostSignificantBits;
+            this.idLeastSignificantBits[size] = idLeastSignificantBits;
+            salaries[size] = salary;
+            ages[size] = age;
+            int titleCode = title == null ? NULL_INT : titleCode(title);
+            titleCodes[size] = titleCode;
+            names.add(name);
+            emails.add(email);
+            if (salary != NULL_INT) {
+                minSalary = minSalary == NULL_INT ? salary : Math.min(minSalary, salary);
+                maxSalary = Math.max(maxSalary, salary);
+            }
+            if (age != NULL_INT) {
+                minAge = minAge == NULL_INT ? age : Math.min(minAge, age);
+                maxAge = Math.max(maxAge, age);
+            }
+            if (indexes != null) {
+                indexes.add(salary, age, titleCode);
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Collects the {@link EmployeeIndexes} while the rows are added, so the built snapshot has them right away
+         * without another pass over its columns.
+         */
+        Builder withIndexes() {
+            if (indexes == null) {
+                indexes = new EmployeeIndexes.Collector(salaries.length);
+                for (int row = 0; row < size; row++) {
+                    indexes.add(salaries[row], ages[row], titleCodes[row]);
+                }
+            }
+            return this;
+        }
+
+        EmployeeSnapshot build() {
+            EmployeeSnapshot snapshot = new EmployeeSnapshot(this);
+            if (indexes != null) {
+                snapshot.derived(EmployeeIndexes.class, indexes::build);
+            }
+            return snapshot;
+        }
+
+        private int titleCode(String title) {
+            // A single lookup, without the capturing lambda computeIfAbsent would take per row.
+            Integer code = titleDictionary.putIfAbsent(title, titleDictionary.size());
+            return code == null ? titleDictionary.size() - 1 : code;
+        }
+
+        private void grow() {
+            int capacity = salaries.length * 2;
+            idMostSignificantBits = Arrays.copyOf(idMostSignificantBits, capacity);
+            idLeastSignificantBits = Arrays.copyOf(idLeastSignificantBits, capacity);
+            salaries = Arrays.copyOf(salaries, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            titleCodes = Arrays.copyOf(titleCodes, capacity);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.reliaquest.api.service;
+
+import static com.reliaquest.api.service.EmployeeSnapshot.NULL_INT;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.reliaquest.api.exceptions.UnableToObtainEmployeesException;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Package protected decoder of the Mock Employee Server's list of Employees straight into an
+ * {@link EmployeeSnapshot}. The {@link Response} envelope is read token by token and the fields of every Employee go
+ * directly into the snapshot columns and its {@link EmployeeIndexes}, so neither a {@link RepositoryEmployee} per row
+ * nor the list holding them is created. Ids are parsed from the parser's own characters instead of through
+ * {@link UUID#fromString(String)}, and names and emails are encoded from them, so of the fields of a row only the
+ * title, the key of the title dictionary, becomes a String.
+ */
+final class EmployeeSnapshotDecoder {
+    private static final JsonFactory JSON = new JsonFactory();
+    // An Employee takes 150 to 200 bytes of JSON; erring low sizes the columns once instead of doubling them.
+    private static final int BYTES_PER_EMPLOYEE = 128;
+
+    private EmployeeSnapshotDecoder() {}
+
+    /**
+     * @param bodies the answer of every shard, decoded one after the other into the same snapshot
+     * @throws UnableToObtainEmployeesException when an answer is missing or reports an error.
+     * @throws RestClientException when an answer is not a list of Employees.
+     */
+    static EmployeeSnapshot decode(List<byte[]> bodies) {
+        FlightEvents.SnapshotLoad event = new FlightEvents.SnapshotLoad();
+        event.begin();
+        int expectedSize = bodies.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(body -> body.length / BYTES_PER_EMPLOYEE)
+                .sum();
+        EmployeeSnapshot.Builder builder =
+                EmployeeSnapshot.builder(expectedSize).withIndexes();
+        for (byte[] body : bodies) {
+            if (body == null) {
+                throw new UnableToObtainEmployeesException("Employees could not be obtained due to an empty answer.");
+            }
+            try (JsonParser parser = JSON.createParser(body)) {
+                decodeResponse(parser, builder);
+            } catch (IOException e) {
+                throw new RestClientException("Could not read the Employees from the Mock Employee Server.", e);
+            }
+            event.bytes += body.length;
+        }
+        EmployeeSnapshot snapshot = builder.build();
+        event.source = "upstream";
+        event.rows = snapshot.size();
+        event.version = snapshot.version();
+        event.commit();
+        return snapshot;
+    }
+
+    private static void decodeResponse(JsonParser parser, EmployeeSnapshot.Builder builder) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a response object.");
+        }
+        String status = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                Row row = new Row();
+                JsonToken element;
+                while ((element = parser.nextToken()) == JsonToken.START_OBJECT) {
+                    decodeEmployee(parser, builder, row);
+                }
+                if (element != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(parser, "Expected an Employee or the end of the list.");
+                }
+            } else if ("data".equals(field) && value != JsonToken.VALUE_NULL) {
+                throw new JsonParseException(parser, "Expected a list of Employees.");
+            } else if ("status".equals(field)) {
+                status = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Expected a field or the end of the response.");
+        }
+        if (Response.Status.ERROR.getValue().equals(status)) {
+            throw new UnableToObtainEmployeesException("Employees could not be obtained due to an error.");
+        }
+    }
+
+    private static void decodeEmployee(JsonParser parser, EmployeeSnapshot.Builder builder, Row row)
+            throws IOException {
+        row.clear();
+        // Field names are canonicalized by the parser, so reading them allocates nothing per row.
+        for (String field = parser.nextFieldName(); field != null; field = parser.nextFieldName()) {
+            if (parser.nextToken() != JsonToken.VALUE_NULL) {
+                row.read(field, parser);
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(parser, "Expected a field or the end of the Employee.");
+        }
+        if (!row.hasId) {
+            throw new JsonParseException(parser, "Employee without an id.");
+        }
+        builder.add(
+                row.idMostSignificantBits,
+                row.idLeastSignificantBits,
+                row.name,
+                row.salary,
+                row.age,
+                row.title,
+                row.email);
+    }
+
+    /**
+     * @return whether the characters have the canonical 8-4-4-4-12 layout; their digits are checked while parsing.
+     */
+    private static boolean isCanonicalUuid(char[] chars, int offset, int length) {
+        return length == 36
+                && chars[offset + 8] == '-'
+                && chars[offset + 13] == '-'
+                && chars[offset + 18] == '-'
+                && chars[offset + 23] == '-';
+    }
+
+    private static long mostSignificantBits(char[] chars, int offset) {
+        return hex(chars, offset, offset + 8) << 32
+                | hex(chars, offset + 9, offset + 13) << 16
+                | hex(chars, offset + 14, offset + 18);
+    }
+
+    private static long leastSignificantBits(char[] chars, int offset) {
+        return hex(chars, offset + 19, offset + 23) << 48 | hex(chars, offset + 24, offset + 36);
+    }
+
+    /**
+     * The fields of the Employee being decoded, reused from one Employee to the next.
+     */
+    private static final class Row {
+        private long idMostSignificantBits;
+        private long idLeastSignificantBits;
+        private boolean hasId;
+        private CharBuffer nameChars = CharBuffer.allocate(64);
+        private CharBuffer emailChars = CharBuffer.allocate(64);
+        private CharBuffer name;
+        private int salary;
+        private int age;
+        private String title;
+        private CharBuffer email;
+
+        void clear() {
+            hasId = false;
+            name = null;
+            salary = NULL_INT;
+            age = NULL_INT;
+            title = null;
+            email = null;
+        }
+
+        void read(String field, JsonParser parser) throws IOException {
+            switch (field) {
+                case "id" -> readId(parser);
+                case "employee_name" -> name = nameChars = copy(nameChars, parser);
+                case "employee_salary" -> salary = parser.getIntValue();
+                case "employee_age" -> age = parser.getIntValue();
+                case "employee_title" -> title = parser.getText();
+                case "employee_email" -> email = emailChars = copy(emailChars, parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        /**
+         * Names and emails go into the snapshot as UTF-8, so they are copied from the parser without a String.
+         */
+        private static CharBuffer copy(CharBuffer buffer, JsonParser parser) throws IOException {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            int length = parser.getTextLength();
+            CharBuffer target = buffer.capacity() < length ? CharBuffer.allocate(length * 2) : buffer.clear();
+            return target.put(chars, offset, length).flip();
+        }
+
+        private void readId(JsonParser parser) throws IOException {
+            char[] chars = parser.getTextCharacters();
+            int offset = parser.getTextOffset();
+            if (isCanonicalUuid(chars, offset, parser.getTextLength())) {
+                idMostSignificantBits = mostSignificantBits(chars, offset);
+                idLeastSignificantBits = leastSignificantBits(chars, offset);
+            } else {
+                UUID id = UUID.fromString(parser.getText());
+                idMostSignificantBits = id.getMostSignificantBits();
+                idLeastSignificantBits = id.getLeastSignificantBits();
+            }
+            hasId = true;
+        }
+    }
+
+    private static long hex(char[] chars, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                digit = c - 'a' + 10;
+            } else if (c >= 'A' && c <= 'F') {
+                digit = c - 'A' + 10;
+            } else {
+                throw new IllegalArgumentException("Invalid UUID string: " + new String(chars, from, to - from));
+            }
+            value = value << 4 | digit;
+        }
+        return value;
+    }
+}
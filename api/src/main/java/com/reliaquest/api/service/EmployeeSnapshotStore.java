@@ -0,0 +1,96 @@
+package com.reliaquest.api.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Package protected copy of the latest {@link EmployeeSnapshot} on local disk, so a restarted API can serve the
+ * Employees before the Mock Employee Server has answered. Disabled unless {@code employee.snapshot.path} is set.
+ * <p>
+ * Snapshots are written in the background, the latest one only, to a temporary file which then replaces the previous
+ * copy, so a crash never leaves half a snapshot behind. They are read back through a memory mapping of the file.
+ */
+@Component
+@Slf4j
+class EmployeeSnapshotStore {
+    private final Path path;
+    private final Executor executor;
+    private final AtomicReference<EmployeeSnapshot> pending = new AtomicReference<>();
+
+    public EmployeeSnapshotStore(
+            @Value("${employee.snapshot.path:}") String path,
+            @Qualifier("employeeSnapshotExecutor") Executor executor) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.executor = executor;
+    }
+
+    /**
+     * @return the snapshot saved last, or an empty Optional when there is none or it cannot be read.
+     */
+    Optional<EmployeeSnapshot> load() {
+        if (path == null || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        FlightEvents.SnapshotLoad event = new FlightEvents.SnapshotLoad();
+        event.begin();
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            EmployeeSnapshot snapshot = EmployeeSnapshot.readFrom(buffer);
+            event.source = "disk";
+            event.rows = snapshot.size();
+            event.bytes = buffer.capacity();
+            event.version = snapshot.version();
+            event.commit();
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring the employee snapshot at {} as it could not be read.", path, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the snapshot in the background. When several snapshots are saved before the first one is written, only
+     * the latest is.
+     */
+    void save(EmployeeSnapshot snapshot) {
+        if (path != null && pending.getAndSet(snapshot) == null) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    private void writePending() {
+        EmployeeSnapshot snapshot = pending.getAndSet(null);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, snapshot.serializedSize());
+                snapshot.writeTo(buffer);
+                buffer.force();
+            }
+            Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING);
+            log.info("Saved the {} Employees of snapshot {} to {}.", snapshot.size(), snapshot.version(), path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not save the employee snapshot to {}.", path, e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Package protected warm-up which runs once the web server has started: it loads the Employee snapshot, builds the
+ * indexes derived from it and calls the hot read endpoints a few times, so the first requests find the data cached
+ * and the code already compiled. Spring Boot only reports the API ready to accept traffic once every
+ * {@link ApplicationRunner} is done; the warm-up is also part of the readiness health group as
+ * {@code employeeWarmUp}.
+ * <p>
+ * A failed warm-up is logged and retried on the snapshot executor, with a delay doubling from {@code retry-delay} up
+ * to {@value #MAX_RETRY_SECONDS} seconds, until it succeeds. While {@code employee.warm-up.required} is set the API is
+ * out of service until then, as when it starts while the Mock Employee Server is rate limiting it; without it the API
+ * becomes ready anyway and the Employees are loaded by the first request, as they would be without a warm-up. The
+ * endpoints are called through the configured {@link RestClient.Builder}, so with its timeouts.
+ */
+@Component
+@Slf4j
+class EmployeeWarmUp implements ApplicationRunner, HealthIndicator {
+    private static final long MAX_RETRY_SECONDS = 30;
+
+    private final EmployeeCacheService employeeCacheService;
+    private final Environment environment;
+    private final RestClient.Builder restClientBuilder;
+    private final Executor executor;
+    private final boolean enabled;
+    private final boolean required;
+    private final int iterations;
+    private final List<String> paths;
+    private final Duration retryDelay;
+    private volatile Health health = Health.outOfService().build();
+
+    public EmployeeWarmUp(
+            EmployeeCacheService employeeCacheService,
+            Environment environment,
+            RestClient.Builder restClientBuilder,
+            @Qualifier("employeeSnapshotExecutor") Executor executor,
+            @Value("${employee.warm-up.enabled:true}") boolean enabled,
+            @Value("${employee.warm-up.required:true}") boolean required,
+            @Value("${employee.warm-up.iterations:10}") int iterations,
+            @Value("${employee.warm-up.paths:}") List<String> paths,
+            @Value("${employee.warm-up.retry-delay:1s}") Duration retryDelay) {
+        this.employeeCacheService = employeeCacheService;
+        this.environment = environment;
+        this.restClientBuilder = restClientBuilder;
+        this.executor = executor;
+        this.enabled = enabled;
+        this.required = required;
+        this.iterations = iterations;
+        this.paths = paths;
+        this.retryDelay = retryDelay;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            health = Health.up().withDetail("warmUp", "disabled").build();
+            return;
+        }
+        warmUp(retryDelay);
+    }
+
+    private void warmUp(Duration retryAfter) {
+        long started = System.nanoTime();
+        try {
+            EmployeeSnapshot snapshot = employeeCacheService.getSnapshot();
+            Duration loaded = since(started);
+            snapshot.derived(EmployeeIndexes.class, EmployeeIndexes::build);
+            snapshot.derived(NameFuzzyIndex.class, NameFuzzyIndex::build);
+            snapshot.derived(EmployeeAnalytics.class, EmployeeAnalyticsCalculator::calculate);
+            Duration indexed = since(started);
+            int calls = callEndpoints();
+            Duration total = since(started);
+            log.info(
+                    "Warmed up {} Employees in {} ms: snapshot {} ms, indexes {} ms, {} endpoint calls {} ms.",
+                    snapshot.size(),
+                    total.toMillis(),
+                    loaded.toMillis(),
+                    indexed.minus(loaded).toMillis(),
+                    calls,
+                    total.minus(indexed).toMillis());
+            health = Health.up()
+                    .withDetail("employees", snapshot.size())
+                    .withDetail("snapshotMs", loaded.toMillis())
+                    .withDetail("indexesMs", indexed.minus(loaded).toMillis())
+                    .withDetail("endpointsMs", total.minus(indexed).toMillis())
+                    .build();
+        } catch (RuntimeException e) {
+            log.warn(
+                    "Warm-up failed after {} ms, retrying in {} ms.",
+                    since(started).toMillis(),
+                    retryAfter.toMillis(),
+                    e);
+            health = (required ? Health.outOfService() : Health.up())
+                    .withDetail("warmUp", "failed")
+                    .withDetail("error", String.valueOf(e.getMessage()))
+                    .withDetail("retryInMs", retryAfter.toMillis())
+                    .build();
+            Duration nextRetryAfter = retryAfter.multipliedBy(2);
+            CompletableFuture.delayedExecutor(retryAfter.toNanos(), TimeUnit.NANOSECONDS, executor)
+                    .execute(() -> warmUp(
+                            nextRetryAfter.toSeconds() < MAX_RETRY_SECONDS
+                                    ? nextRetryAfter
+                                    : Duration.ofSeconds(MAX_RETRY_SECONDS)));
+        }
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    /**
+     * Calls the configured paths of the API itself, reading the whole responses so they are serialized in full. The
+     * calls are not to the Mock Employee Server, so they are not recorded as its requests. Skipped when the API does
+     * not listen on a port, as in tests with a mocked web environment.
+     *
+     * @return the number of calls made.
+     */
+    private int callEndpoints() {
+        String port = environment.getProperty("local.server.port");
+        if (port == null || paths.isEmpty()) {
+            return 0;
+        }
+        RestClient restClient = restClientBuilder
+                .clone()
+                .baseUrl("http://localhost:" + port)
+                .requestInterceptors(interceptors -> interceptors.removeIf(UpstreamRequestRecorder.class::isInstance))
+                .build();
+        int calls = 0;
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (String path : paths) {
+                restClient.get().uri(path).exchange((request, response) -> {
+                    response.getBody().transferTo(OutputStream.nullOutputStream());
+                    return response.getStatusCode();
+                });
+                calls++;
+            }
+        }
+        return calls;
+    }
+
+    private static Duration since(long started) {
+        return Duration.ofNanos(System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,109 @@
+package com.reliaquest.api.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Package protected Java Flight Recorder events of the hot paths of the API. They are written only while a recording
+ * is running, such as the continuous one of the {@code jfr} profile, and otherwise cost a check of a flag. Together
+ * they show where the time of a slow request went: waiting on the Mock Employee Server, decoding its answer, building
+ * an index or searching.
+ */
+final class FlightEvents {
+    private static final String CATEGORY = "ReliaQuest";
+    private static final String APPLICATION = "Employee API";
+
+    private FlightEvents() {}
+
+    @Name("com.reliaquest.api.UpstreamRequest")
+    @Label("Upstream Request")
+    @Description("A call to the Mock Employee Server, from sending the request until its answer is read")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class UpstreamRequest extends Event {
+        @Label("Method")
+        String method;
+
+        @Label("Route")
+        String route;
+
+        @Label("Status")
+        @Description("Status of the answer, 0 when there is none")
+        int status;
+
+        @Label("Bytes")
+        @Description("Bytes of the answer read")
+        @DataAmount
+        long bytes;
+
+        @Label("Time to Headers")
+        @Description("Time until the status and headers of the answer arrived")
+        @Timespan
+        long timeToHeaders;
+    }
+
+    @Name("com.reliaquest.api.SnapshotLoad")
+    @Label("Snapshot Load")
+    @Description("Decoding the Employees into a snapshot")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class SnapshotLoad extends Event {
+        @Label("Source")
+        @Description(
+                "upstream for the answers of the Mock Employee Server, disk for the snapshot saved by a previous run")
+        String source;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Version")
+        long version;
+    }
+
+    @Name("com.reliaquest.api.IndexBuild")
+    @Label("Index Build")
+    @Description("Building an index, or other data derived from a snapshot, the first time it is used")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class IndexBuild extends Event {
+        @Label("Index")
+        String index;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Snapshot Version")
+        long version;
+    }
+
+    @Name("com.reliaquest.api.Search")
+    @Label("Search")
+    @Description("A name search over a snapshot")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class Search extends Event {
+        @Label("Kind")
+        @Description("contains for the search by fragment, fuzzy for the typo tolerant one")
+        String kind;
+
+        @Label("Fragment Length")
+        int fragmentLength;
+
+        @Label("Hits")
+        int hits;
+
+        @Label("Cached")
+        @Description("Whether the rows found were cached")
+        boolean cached;
+    }
+}
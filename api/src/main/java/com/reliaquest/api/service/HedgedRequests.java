@@ -0,0 +1,141 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Package protected hedging of the idempotent reads of the Mock Employee Server. When the answer takes longer than the
+ * 95th percentile of the recent answers of the same operation, and at least {@code minDelay}, the same request is sent
+ * once more and the first answer wins. Every read earns {@code maxRatio} of a hedge, so a slow Mock Employee Server
+ * sees little extra load, and a read which already failed is never hedged.
+ */
+@Slf4j
+final class HedgedRequests {
+    private final Executor executor;
+    private final boolean enabled;
+    private final Duration minDelay;
+    private final HedgingBudget budget;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    HedgedRequests(Executor executor, boolean enabled, Duration minDelay, double maxRatio) {
+        this.executor = executor;
+        this.enabled = enabled;
+        this.minDelay = minDelay;
+        this.budget = new HedgingBudget(maxRatio);
+    }
+
+    /**
+     * @param timeout how long the caller waits for the answer; no hedge is sent when it would come later
+     */
+    <T> CompletableFuture<T> send(String operation, Supplier<T> request, Duration timeout) {
+        LatencyWindow window = latencies.computeIfAbsent(operation, ignored -> new LatencyWindow());
+        long started = System.nanoTime();
+        CompletableFuture<T> primary = CompletableFuture.supplyAsync(request, executor)
+                .whenComplete((response, failure) -> {
+                    if (failure == null) {
+                        window.record(System.nanoTime() - started);
+                    }
+                });
+        if (!enabled) {
+            return primary;
+        }
+        budget.onRequest();
+        Duration delay = window.p95().filter(p95 -> p95.compareTo(minDelay) > 0).orElse(minDelay);
+        if (delay.compareTo(timeout) >= 0) {
+            return primary;
+        }
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        primary.whenComplete((response, failure) -> complete(first, pending, response, failure));
+        CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, executor)
+                .execute(() -> {
+                    if (first.isDone() || !budget.tryHedge()) {
+                        return;
+                    }
+                    if (pending.getAndUpdate(attempts -> attempts == 0 ? 0 : attempts + 1) == 0) {
+                        budget.refund();
+                        return;
+                    }
+                    log.debug("Hedging {} after {} ms.", operation, delay.toMillis());
+                    CompletableFuture.supplyAsync(request, executor)
+                            .whenComplete((response, failure) -> complete(first, pending, response, failure));
+                });
+        return first;
+    }
+
+    /**
+     * The first answer wins; a failure only counts once no other attempt is left to answer. An attempt is only added
+     * while one is still pending, so a hedge is never sent once every attempt failed.
+     */
+    private static <T> void complete(CompletableFuture<T> first, AtomicInteger pending, T response, Throwable failure) {
+        if (failure == null) {
+            first.complete(response);
+        } else if (pending.decrementAndGet() == 0) {
+            first.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * The latencies of the last {@value #SIZE} successful calls of one operation.
+     */
+    private static final class LatencyWindow {
+        private static final int SIZE = 256;
+        private static final int MIN_SAMPLES = 20;
+        private final long[] nanos = new long[SIZE];
+        private long count;
+
+        synchronized void record(long latency) {
+            nanos[(int) (count++ % SIZE)] = latency;
+        }
+
+        synchronized Optional<Duration> p95() {
+            if (count < MIN_SAMPLES) {
+                return Optional.empty();
+            }
+            long[] samples = Arrays.copyOf(nanos, (int) Math.min(count, SIZE));
+            Arrays.sort(samples);
+            return Optional.of(Duration.ofNanos(samples[(int) Math.ceil(samples.length * 0.95) - 1]));
+        }
+    }
+
+    /**
+     * Every read earns a fraction of a hedge, up to a small burst, and every hedge spends a whole one.
+     */
+    private static final class HedgingBudget {
+        private static final double MAX_TOKENS = 10;
+        private final double ratio;
+        private double tokens;
+
+        HedgingBudget(double ratio) {
+            this.ratio = ratio;
+        }
+
+        synchronized void onRequest() {
+            tokens = Math.min(MAX_TOKENS, tokens + ratio);
+        }
+
+        synchronized boolean tryHedge() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        /**
+         * Gives back a hedge taken but not sent.
+         */
+        synchronized void refund() {
+            tokens = Math.min(MAX_TOKENS, tokens + 1);
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package com.reliaquest.api.service;
 
 import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeFields;
+import com.reliaquest.api.dto.EmployeeFilter;
 import java.util.List;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 public interface IEmployeeService {
-    List<Employee> getAllEmployees();
+    default List<Employee> getAllEmployees() {
+        return getAllEmployees(EmployeeFields.ALL);
+    }
 
-    List<Employee> getEmployeesByNameSearch(String searchString);
+    /**
+     * The list reads taking {@link EmployeeFields} only fill in those fields of the Employees, the others are null.
+     */
+    List<Employee> getAllEmployees(EmployeeFields fields);
+
+    default List<Employee> getEmployeesByNameSearch(String searchString) {
+        return getEmployeesByNameSearch(searchString, EmployeeFields.ALL);
+    }
+
+    List<Employee> getEmployeesByNameSearch(String searchString, EmployeeFields fields);
+
+    List<Employee> getEmployeesByFuzzyNameSearch(
+            String searchString, int limit, Integer maxDistance, EmployeeFields fields);
 
     Employee getEmployeeById(String id);
 
+    List<Employee> getEmployeesByIds(List<String> ids);
+
     String attemptToDeleteEmployeeWithId(String id);
 
     Employee createEmployee(Employee employeeInput);
@@ -18,4 +38,14 @@ public interface IEmployeeService {
     OptionalInt getHighestSalary();
 
     List<String> getTopHighestEarningNames(int number);
+
+    EmployeeAnalytics getAnalytics();
+
+    List<Employee> getEmployeesByFilter(EmployeeFilter filter, EmployeeFields fields);
+
+    /**
+     * @return the version of the cached Employee snapshot, empty when none is cached; it changes whenever the
+     * snapshot is replaced, and every read answered from the snapshot reads the one cached now.
+     */
+    OptionalLong getSnapshotVersion();
 }
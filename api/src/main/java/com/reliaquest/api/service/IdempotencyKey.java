@@ -0,0 +1,40 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exceptions.InvalidIdempotencyKeyException;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * The key a client sends along with a create, so the create it retries after a timeout or a dropped connection is
+ * answered with the Employee created the first time instead of creating another one. Keys are scoped to the client
+ * named by its {@link ClientQuota}, so two clients choosing the same key do not share their creates.
+ *
+ * @param client the client sending the key, or empty when the request is charged to no client
+ * @param value the key chosen by the client, unique per Employee it creates
+ */
+public record IdempotencyKey(String client, String value) {
+    public static final String HEADER = "Idempotency-Key";
+
+    static final int MAX_LENGTH = 255;
+
+    /**
+     * @return the key sent with the request being handled by the current thread, if any.
+     * @throws InvalidIdempotencyKeyException when the key is longer than {@value #MAX_LENGTH} characters.
+     */
+    static Optional<IdempotencyKey> current() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return Optional.empty();
+        }
+        String header = attributes.getRequest().getHeader(HEADER);
+        if (header == null || header.isBlank()) {
+            return Optional.empty();
+        }
+        if (header.length() > MAX_LENGTH) {
+            throw new InvalidIdempotencyKeyException(
+                    String.format("%s must not exceed %d characters.", HEADER, MAX_LENGTH));
+        }
+        String client = ClientQuota.current().map(ClientQuota::client).orElse("");
+        return Optional.of(new IdempotencyKey(client, header.trim()));
+    }
+}
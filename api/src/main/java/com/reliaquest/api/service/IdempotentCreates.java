@@ -0,0 +1,133 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.exceptions.ClientQuotaExceededException;
+import com.reliaquest.api.exceptions.IdempotencyKeyInDoubtException;
+import com.reliaquest.api.exceptions.IdempotencyKeyReusedException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Package protected record of the Employees created under an {@link IdempotencyKey}, kept for {@code ttl} and for at
+ * most {@code max-keys} keys, the oldest created Employee going first. A create repeated with the same key and the
+ * same input gets the Employee created the first time without calling the Mock Employee Server; one arriving while the
+ * first is still running waits for it, so a running create is never forgotten to make room. A create which the Mock
+ * Employee Server surely did not make, as it refused it or it was never sent, is forgotten, so it can be retried with
+ * the same key. One which timed out or failed otherwise may still have created the Employee, so it is kept in doubt:
+ * repeating it fails with an {@link IdempotencyKeyInDoubtException} rather than creating the Employee twice.
+ */
+@Component
+@Slf4j
+class IdempotentCreates {
+    private final long ttlNanos;
+    private final int maxKeys;
+    // Insertion ordered: as every key lives for the same ttl, the eldest entry is always the first to expire.
+    private final LinkedHashMap<IdempotencyKey, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotentCreates(
+            @Value("${employee.idempotency.ttl:24h}") Duration ttl,
+            @Value("${employee.idempotency.max-keys:10000}") int maxKeys) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxKeys = Math.max(maxKeys, 1);
+    }
+
+    /**
+     * @param create creates the Employee, called only for the first create with the key
+     * @throws IdempotencyKeyReusedException when the key was used for a create with another input.
+     */
+    Employee create(IdempotencyKey key, EmployeeCreate input, Supplier<Employee> create) {
+        Entry entry;
+        boolean first = false;
+        synchronized (this) {
+            long now = System.nanoTime();
+            expire(now);
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(input, new CompletableFuture<>(), now + ttlNanos);
+                entries.put(key, entry);
+                first = true;
+                evict();
+            }
+        }
+        if (!entry.input().equals(input)) {
+            throw new IdempotencyKeyReusedException(String.format(
+                    "%s %s was already used to create another Employee.", IdempotencyKey.HEADER, key.value()));
+        }
+        if (first) {
+            try {
+                entry.employee().complete(create.get());
+            } catch (RuntimeException e) {
+                if (isRejected(e)) {
+                    forget(key, entry);
+                    entry.employee().completeExceptionally(e);
+                } else {
+                    log.warn("The create for {} {} may have created the Employee.", IdempotencyKey.HEADER, key.value());
+                    entry.employee()
+                            .completeExceptionally(new IdempotencyKeyInDoubtException(String.format(
+                                    "%s %s was used for a create which may have created the Employee; look it up"
+                                            + " before creating it again with another key.",
+                                    IdempotencyKey.HEADER, key.value())));
+                }
+                throw e;
+            }
+        } else {
+            log.info("Replaying the create for {} {}.", IdempotencyKey.HEADER, key.value());
+        }
+        try {
+            return entry.employee().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void forget(IdempotencyKey key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    /**
+     * @return whether the Mock Employee Server surely did not create the Employee: it answered with a client error, a
+     * 429 included, or the create was shed before it was sent.
+     */
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof HttpClientErrorException
+                || e instanceof ClientQuotaExceededException
+                || (e instanceof UpstreamUnavailableException && !(e.getCause() instanceof HttpServerErrorException));
+    }
+
+    /**
+     * Forgets the oldest created Employees past {@code max-keys}; the keys of the creates still running are kept even
+     * when that leaves more.
+     */
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxKeys && eldest.hasNext()) {
+            if (eldest.next().employee().isDone()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private void expire(long now) {
+        Iterator<Map.Entry<IdempotencyKey, Entry>> eldest = entries.entrySet().iterator();
+        while (eldest.hasNext() && eldest.next().getValue().expiresAtNanos() - now <= 0) {
+            eldest.remove();
+        }
+    }
+
+    private record Entry(EmployeeCreate input, CompletableFuture<Employee> employee, long expiresAtNanos) {}
+}
@@ -0,0 +1,418 @@
+package com.reliaquest.api.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Package protected typo tolerant index over the names of an {@link EmployeeSnapshot}, built once per snapshot.
+ * <p>
+ * Names are normalized (lower case, accents and punctuation removed) and split into words. Every distinct word is
+ * stored once in a BK-tree keyed by Levenshtein distance, together with the rows holding it in name order, and every
+ * row keeps the ids of its own words.
+ * <p>
+ * A search looks up the words of the query in the tree, which only visits the subtrees the triangle inequality cannot
+ * rule out, and drives from the query word matching the fewest rows: the rows of the other words are only skipped
+ * ahead to its candidates. The rows of its matching words are visited by increasing distance and, for one distance,
+ * in name order, so the scan stops as soon as no row left can make it into the requested number of results. The cost
+ * follows the number of results rather than the number of Employees sharing a common name.
+ */
+final class NameFuzzyIndex {
+    static final int MAX_DISTANCE = 3;
+
+    private static final Pattern NON_SPACING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NO_NODE = -1;
+
+    private final String[] words;
+    private final int[][] ranksByWord;
+    private final int[] rowsByRank;
+    private final int[] rowWordOffsets;
+    private final int[] rowWords;
+    // BK-tree over the word ids: node i holds words[i], its children are linked through nextSibling.
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] edgeDistance;
+
+    private NameFuzzyIndex(EmployeeSnapshot snapshot) {
+        int size = snapshot.size();
+        String[] names = new String[size];
+        Map<String, Integer> wordIds = new HashMap<>();
+        List<String> distinctWords = new ArrayList<>();
+        int[] rowWordOffsets = new int[size + 1];
+        int[] rowWords = new int[Math.max(16, size * 3)];
+        int total = 0;
+        for (int row = 0; row < size; row++) {
+            names[row] = snapshot.name(row);
+            rowWordOffsets[row] = total;
+            for (String word : words(names[row])) {
+                int id = wordIds.computeIfAbsent(word, key -> {
+                    distinctWords.add(key);
+                    return distinctWords.size() - 1;
+                });
+                if (!contains(rowWords, rowWordOffsets[row], total, id)) {
+                    if (total == rowWords.length) {
+                        rowWords = Arrays.copyOf(rowWords, total * 2);
+                    }
+                    rowWords[total++] = id;
+                }
+            }
+        }
+        rowWordOffsets[size] = total;
+        this.rowWordOffsets = rowWordOffsets;
+        this.rowWords = Arrays.copyOf(rowWords, total);
+        this.words = distinctWords.toArray(String[]::new);
+        this.rowsByRank = IntStream.range(0, size)
+                .parallel()
+                .boxed()
+                .sorted(Comparator.comparing(
+                        (Integer row) -> names[row], Comparator.nullsLast(Comparator.naturalOrder())))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.ranksByWord = postings(words.length, this.rowsByRank, this.rowWordOffsets, this.rowWords);
+        this.firstChild = new int[words.length];
+        this.nextSibling = new int[words.length];
+        this.edgeDistance = new int[words.length];
+        Arrays.fill(firstChild, NO_NODE);
+        Arrays.fill(nextSibling, NO_NODE);
+        for (int word = 1; word < words.length; word++) {
+            insert(word);
+        }
+    }
+
+    static NameFuzzyIndex build(EmployeeSnapshot snapshot) {
+        return new NameFuzzyIndex(snapshot);
+    }
+
+    /**
+     * The distance allowed per word when the caller does not choose one: exact for very short words, which would
+     * otherwise match almost anything, and up to two edits, enough for a swapped pair of letters, from four letters on.
+     */
+    static int defaultMaxDistance(String word) {
+        return word.length() <= 2 ? 0 : word.length() == 3 ? 1 : 2;
+    }
+
+    /**
+     * Every word of the query has to be found in the name, each within {@code maxDistance} edits of a word of the
+     * name, or within its {@link #defaultMaxDistance(String) default distance} when {@code maxDistance} is null.
+     *
+     * @return up to {@code limit} rows, closest first by the sum of the distances of the query words, then by name.
+     */
+    int[] search(String query, int limit, Integer maxDistance) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0 || words.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+        int[] allowed = new int[queryWords.length];
+        List<Map<Integer, Integer>> matches = new ArrayList<>(queryWords.length);
+        int maxScore = 0;
+        for (int i = 0; i < queryWords.length; i++) {
+            allowed[i] = Math.min(MAX_DISTANCE, maxDistance == null ? defaultMaxDistance(queryWords[i]) : maxDistance);
+            matches.add(lookup(queryWords[i], allowed[i]));
+            maxScore += allowed[i];
+        }
+
+        // Every matching row has exactly one vector of best distances, one per query word. Going through the vectors
+        // by increasing sum finds the rows by increasing score, and the rows of one vector come out of the
+        // intersection in name order, so every vector stops after the rows still missing.
+        // No more rows than the snapshot has can be found, whatever the limit asked for.
+        limit = Math.min(limit, rowsByRank.length);
+        int[] results = new int[limit];
+        int found = 0;
+        for (int score = 0; score <= maxScore && found < limit; score++) {
+            int[] atScore = new int[0];
+            for (int[] distances : distanceVectors(allowed, score)) {
+                int[] ranks = intersect(matches, distances, limit - found);
+                atScore = mergeSorted(atScore, ranks, limit - found);
+            }
+            for (int rank : atScore) {
+                results[found++] = rowsByRank[rank];
+            }
+        }
+        return Arrays.copyOf(results, found);
+    }
+
+    /**
+     * @return up to {@code limit} ranks, in increasing order, of the rows whose best distance to every query word is
+     * exactly the distance given for it.
+     */
+    private int[] intersect(List<Map<Integer, Integer>> matches, int[] distances, int limit) {
+        UnionCursor[] cursors = new UnionCursor[distances.length];
+        for (int i = 0; i < distances.length; i++) {
+            cursors[i] = new UnionCursor(postingsAt(matches.get(i), distances[i]));
+            if (cursors[i].exhausted()) {
+                return new int[0];
+            }
+        }
+        // The rarest query word proposes the candidates, the lists of the others only gallop to them.
+        Arrays.sort(cursors, Comparator.comparingLong(UnionCursor::size));
+        int[] ranks = new int[Math.min(limit, 16)];
+        int found = 0;
+        int candidate = 0;
+        while (found < limit) {
+            boolean aligned = true;
+            for (UnionCursor cursor : cursors) {
+                cursor.advanceTo(candidate);
+                if (cursor.exhausted()) {
+                    return Arrays.copyOf(ranks, found);
+                }
+                if (cursor.current() != candidate) {
+                    candidate = cursor.current();
+                    aligned = false;
+                }
+            }
+            if (!aligned) {
+                continue;
+            }
+            if (hasBestDistances(rowsByRank[candidate], matches, distances)) {
+                if (found == ranks.length) {
+                    ranks = Arrays.copyOf(ranks, Math.min(limit, found * 2));
+                }
+                ranks[found++] = candidate;
+            }
+            candidate++;
+        }
+        return ranks;
+    }
+
+    private boolean hasBestDistances(int row, List<Map<Integer, Integer>> matches, int[] distances) {
+        for (int i = 0; i < distances.length; i++) {
+            for (int w = rowWordOffsets[row]; w < rowWordOffsets[row + 1]; w++) {
+                Integer distance = matches.get(i).get(rowWords[w]);
+                if (distance != null && distance < distances[i]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int[][] postingsAt(Map<Integer, Integer> matches, int distance) {
+        return matches.entrySet().stream()
+                .filter(match -> match.getValue() == distance)
+                .map(match -> ranksByWord[match.getKey()])
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * @return every vector of distances, each within its allowed distance, summing up to {@code sum}.
+     */
+    private static List<int[]> distanceVectors(int[] allowed, int sum) {
+        List<int[]> vectors = new ArrayList<>();
+        collectDistanceVectors(allowed, sum, new int[allowed.length], 0, vectors);
+        return vectors;
+    }
+
+    private static void collectDistanceVectors(
+            int[] allowed, int remaining, int[] vector, int index, List<int[]> vectors) {
+        if (index == allowed.length) {
+            if (remaining == 0) {
+                vectors.add(vector.clone());
+            }
+            return;
+        }
+        for (int distance = 0; distance <= Math.min(allowed[index], remaining); distance++) {
+            vector[index] = distance;
+            collectDistanceVectors(allowed, remaining - distance, vector, index + 1, vectors);
+        }
+    }
+
+    private static int[] mergeSorted(int[] left, int[] right, int limit) {
+        int[] merged = new int[Math.min(limit, left.length + right.length)];
+        int l = 0;
+        int r = 0;
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = r == right.length || (l < left.length && left[l] < right[r]) ? left[l++] : right[r++];
+        }
+        return merged;
+    }
+
+    /**
+     * @return the ids of the words within {@code maxDistance} of the query word, mapped to their distance.
+     */
+    private Map<Integer, Integer> lookup(String query, int maxDistance) {
+        Map<Integer, Integer> matches = new HashMap<>();
+        int[] stack = new int[16];
+        int depth = 0;
+        stack[depth++] = 0;
+        while (depth > 0) {
+            int node = stack[--depth];
+            int distance = levenshtein(query, words[node]);
+            if (distance <= maxDistance) {
+                matches.put(node, distance);
+            }
+            for (int child = firstChild[node]; child != NO_NODE; child = nextSibling[child]) {
+                if (Math.abs(edgeDistance[child] - distance) <= maxDistance) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = child;
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void insert(int word) {
+        int node = 0;
+        while (true) {
+            int distance = levenshtein(words[word], words[node]);
+            int child = firstChild[node];
+            while (child != NO_NODE && edgeDistance[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child == NO_NODE) {
+                edgeDistance[word] = distance;
+                nextSibling[word] = firstChild[node];
+                firstChild[node] = word;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * @return the normalized words of the name: lower case, without accents, split on anything but letters and digits.
+     */
+    static String[] words(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        String normalized = isAscii(name)
+                ? name
+                : NON_SPACING_MARKS
+                        .matcher(Normalizer.normalize(name, Normalizer.Form.NFD))
+                        .replaceAll("");
+        return SEPARATORS
+                .splitAsStream(normalized.toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    static int levenshtein(String left, String right) {
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            char leftChar = left.charAt(i - 1);
+            for (int j = 1; j <= right.length(); j++) {
+                int substitution = previous[j - 1] + (leftChar == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contains(int[] values, int from, int to, int value) {
+        for (int i = from; i < to; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return for every word the ranks of the rows holding it, in increasing order.
+     */
+    private static int[][] postings(int wordCount, int[] rowsByRank, int[] rowWordOffsets, int[] rowWords) {
+        int[] counts = new int[wordCount];
+        for (int word : rowWords) {
+            counts[word]++;
+        }
+        int[][] postings = new int[wordCount][];
+        for (int word = 0; word < wordCount; word++) {
+            postings[word] = new int[counts[word]];
+            counts[word] = 0;
+        }
+        for (int rank = 0; rank < rowsByRank.length; rank++) {
+            int row = rowsByRank[rank];
+            for (int w = rowWordOffsets[row]; w < rowWordOffsets[row + 1]; w++) {
+                postings[rowWords[w]][counts[rowWords[w]]++] = rank;
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Walks the union of several sorted posting lists in increasing order, skipping ahead with a galloping search.
+     */
+    private static final class UnionCursor {
+        private final int[][] postings;
+        private final int[] positions;
+        private int current;
+
+        UnionCursor(int[][] postings) {
+            this.postings = postings;
+            this.positions = new int[postings.length];
+            this.current = -1;
+            advanceTo(0);
+        }
+
+        boolean exhausted() {
+            return current == Integer.MAX_VALUE;
+        }
+
+        int current() {
+            return current;
+        }
+
+        /**
+         * @return the number of ranks in all the lists, counting a rank once per list holding it.
+         */
+        long size() {
+            long size = 0;
+            for (int[] values : postings) {
+                size += values.length;
+            }
+            return size;
+        }
+
+        void advanceTo(int target) {
+            if (current >= target) {
+                return;
+            }
+            current = Integer.MAX_VALUE;
+            for (int i = 0; i < postings.length; i++) {
+                positions[i] = firstAtLeast(postings[i], positions[i], target);
+                if (positions[i] < postings[i].length) {
+                    current = Math.min(current, postings[i][positions[i]]);
+                }
+            }
+        }
+
+        private static int firstAtLeast(int[] values, int from, int target) {
+            int step = 1;
+            int high = from;
+            while (high < values.length && values[high] < target) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int index = Arrays.binarySearch(values, from, Math.min(high, values.length), target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
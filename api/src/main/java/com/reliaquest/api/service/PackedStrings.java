@@ -0,0 +1,182 @@
+package com.reliaquest.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Package protected column of Strings stored back to back as UTF-8 in a single byte array. Row {@code i} spans
+ * {@code offsets[i]} (inclusive) to {@code offsets[i + 1]} (exclusive); null values are tracked in a separate bit set
+ * that is only allocated when a null is actually seen.
+ */
+final class PackedStrings {
+    private final byte[] bytes;
+    private final int[] offsets;
+    private final BitSet nulls;
+
+    private PackedStrings(byte[] bytes, int[] offsets, BitSet nulls) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.nulls = nulls;
+    }
+
+    int size() {
+        return offsets.length - 1;
+    }
+
+    boolean isNull(int row) {
+        return nulls != null && nulls.get(row);
+    }
+
+    String get(int row) {
+        if (isNull(row)) {
+            return null;
+        }
+        return new String(bytes, offsets[row], offsets[row + 1] - offsets[row], UTF_8);
+    }
+
+    /**
+     * Case-sensitive substring match performed directly on the UTF-8 bytes. As UTF-8 is self synchronizing this gives
+     * the same answer as {@link String#contains(CharSequence)} without decoding the row.
+     */
+    boolean contains(int row, byte[] fragment) {
+        if (isNull(row)) {
+            return false;
+        }
+        int start = offsets[row];
+        int last = offsets[row + 1] - fragment.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < fragment.length; j++) {
+                if (bytes[i + j] != fragment[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    long footprintBytes() {
+        return arrayBytes(bytes.length) + arrayBytes(4L * offsets.length) + (nulls == null ? 0 : nulls.size() / 8);
+    }
+
+    /**
+     * @return the number of bytes {@link #writeTo(ByteBuffer)} writes.
+     */
+    int serializedSize() {
+        return 4 + bytes.length + 4 + 4 * offsets.length + 4 + (nulls == null ? 0 : 8 * nulls.toLongArray().length);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putInt(bytes.length).put(bytes);
+        buffer.putInt(offsets.length);
+        putInts(buffer, offsets);
+        if (nulls == null) {
+            buffer.putInt(-1);
+        } else {
+            long[] words = nulls.toLongArray();
+            buffer.putInt(words.length);
+            putLongs(buffer, words);
+        }
+    }
+
+    static PackedStrings readFrom(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        int[] offsets = getInts(buffer, buffer.getInt());
+        int nullWords = buffer.getInt();
+        BitSet nulls = nullWords < 0 ? null : BitSet.valueOf(getLongs(buffer, nullWords));
+        return new PackedStrings(bytes, offsets, nulls);
+    }
+
+    static void putInts(ByteBuffer buffer, int[] values) {
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + 4 * values.length);
+    }
+
+    static int[] getInts(ByteBuffer buffer, int length) {
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * length);
+        return values;
+    }
+
+    static void putLongs(ByteBuffer buffer, long[] values) {
+        buffer.asLongBuffer().put(values);
+        buffer.position(buffer.position() + 8 * values.length);
+    }
+
+    static long[] getLongs(ByteBuffer buffer, int length) {
+        long[] values = new long[length];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + 8 * length);
+        return values;
+    }
+
+    static long arrayBytes(long payload) {
+        // 16 byte array header, payload rounded up to the 8 byte object alignment.
+        return 16 + ((payload + 7) & ~7L);
+    }
+
+    static final class Builder {
+        private byte[] bytes;
+        private int[] offsets;
+        private BitSet nulls;
+        private int size;
+        private int length;
+
+        Builder(int expectedSize) {
+            this.bytes = new byte[Math.max(16, expectedSize * 16)];
+            this.offsets = new int[expectedSize + 1];
+        }
+
+        void add(CharSequence value) {
+            ensureRowCapacity();
+            if (value == null) {
+                if (nulls == null) {
+                    nulls = new BitSet();
+                }
+                nulls.set(size);
+            } else {
+                appendUtf8(value);
+            }
+            offsets[++size] = length;
+        }
+
+        PackedStrings build() {
+            return new PackedStrings(Arrays.copyOf(bytes, length), Arrays.copyOf(offsets, size + 1), nulls);
+        }
+
+        private void appendUtf8(CharSequence value) {
+            int chars = value.length();
+            ensureByteCapacity(chars);
+            for (int i = 0; i < chars; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    // Not plain ASCII, fall back to the JDK encoder for the remainder of the value.
+                    byte[] encoded = value.subSequence(i, chars).toString().getBytes(UTF_8);
+                    ensureByteCapacity(encoded.length);
+                    System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                    length += encoded.length;
+                    return;
+                }
+                bytes[length++] = (byte) c;
+            }
+        }
+
+        private void ensureRowCapacity() {
+            if (size + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.max(8, offsets.length * 2));
+            }
+        }
+
+        private void ensureByteCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(length + additional, bytes.length * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The point in time by which the incoming request has to be answered. It is kept as an attribute of the request, so
+ * every call made to the Mock Employee Server on behalf of the request is bounded by what is left of it.
+ *
+ * @param expiresAtNanos the {@link System#nanoTime()} at which the deadline passes
+ */
+public record RequestDeadline(long expiresAtNanos) {
+    /**
+     * Lets a caller hand down its own remaining time budget, in milliseconds.
+     */
+    public static final String HEADER = "X-Request-Deadline-Ms";
+
+    public static final String ATTRIBUTE = RequestDeadline.class.getName();
+
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * @return the deadline of the request being handled by the current thread, if any.
+     */
+    static Optional<RequestDeadline> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null
+                ? Optional.empty()
+                : Optional.ofNullable(
+                        (RequestDeadline) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    Duration remaining() {
+        return Duration.ofNanos(Math.max(0, expiresAtNanos - System.nanoTime()));
+    }
+}
@@ -0,0 +1,349 @@
+package com.reliaquest.api.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Package protected cache of the snapshot rows whose name contains a fragment, for the snapshot version they were
+ * found in, bounded by the total number of rows held rather than by the number of fragments.
+ * <p>
+ * Admission follows W-TinyLFU: a new result goes to a small LRU window, and once pushed out of it only enters the main
+ * area if its fragment has been searched more often than the fragment of the result it would evict there. How often
+ * fragments are searched is counted in a count-min sketch whose counters are halved as it fills up, so it follows
+ * the traffic as it changes. The main area is a segmented LRU, results hit again while on probation being protected
+ * from the new ones, so a burst of one-off long-tail searches does not push out the hot fragments.
+ * <p>
+ * Lookups take no lock: the cached results are also held in a concurrent map, and every lookup is only written to a
+ * ring buffer. The lookups buffered are replayed into the sketch and the LRU order under the lock, by the next put or
+ * by the lookup finding the buffer full. A lookup finding the buffer full while another thread replays it is dropped,
+ * which at most makes the admission of a fragment a little less accurate.
+ * <p>
+ * Its hits, misses, evictions and weight are published as {@code employee.search.cache.*} metrics.
+ */
+@Component
+class SearchResultCache implements MeterBinder {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+    private static final int READ_BUFFER_SIZE = 128;
+
+    private final long maxWeight;
+    private final long maxWindowWeight;
+    private final long maxProtectedWeight;
+    private final FrequencySketch sketch;
+
+    // Every cached entry, read without the lock; the segments below and their weights are guarded by it.
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Insertion ordered, the least recently used first: a hit moves the entry to the end.
+    private final LinkedHashMap<String, Entry> window = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Entry> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<String, Entry> protectedSegment = new LinkedHashMap<>();
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private volatile long version;
+
+    // The fragments looked up since the last replay, at the positions from replayed up to written.
+    private final AtomicReferenceArray<String> reads = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+    private final AtomicLong readsWritten = new AtomicLong();
+    private final AtomicLong readsReplayed = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public SearchResultCache(@Value("${employee.search-cache.max-weight:100000}") long maxWeight) {
+        this.maxWeight = Math.max(maxWeight, 0);
+        this.maxWindowWeight = Math.max(1, this.maxWeight * WINDOW_PERCENT / 100);
+        this.maxProtectedWeight = (this.maxWeight - maxWindowWeight) * PROTECTED_PERCENT / 100;
+        this.sketch = new FrequencySketch(this.maxWeight);
+    }
+
+    /**
+     * @return the rows of the snapshot whose name contains the fragment, found once per snapshot version as long as
+     * they stay cached; the array is shared and must not be changed.
+     */
+    int[] rowsWithNameContaining(EmployeeSnapshot snapshot, String fragment) {
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        int[] rows = get(snapshot.version(), fragment);
+        event.cached = rows != null;
+        if (rows == null) {
+            rows = snapshot.rowsWithNameContaining(fragment);
+            put(snapshot.version(), fragment, rows);
+        }
+        event.kind = "contains";
+        event.fragmentLength = fragment.length();
+        event.hits = rows.length;
+        event.commit();
+        return rows;
+    }
+
+    double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? Double.NaN : (double) hit / total;
+    }
+
+    long weight() {
+        lock.lock();
+        try {
+            return windowWeight + probationWeight + protectedWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.search.cache.gets", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("employee.search.cache.gets", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("employee.search.cache.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("employee.search.cache.hit.ratio", this, SearchResultCache::hitRatio)
+                .register(registry);
+        Gauge.builder("employee.search.cache.weight", this, SearchResultCache::weight)
+                .description("Rows held by the cached search results")
+                .register(registry);
+    }
+
+    private int[] get(long version, String fragment) {
+        if (version > this.version) {
+            lock.lock();
+            try {
+                if (version > this.version) {
+                    clear(version);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Entry entry = entries.get(fragment);
+        recordRead(fragment);
+        if (entry == null || entry.version() != version) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.rows();
+    }
+
+    private void put(long version, String fragment, int[] rows) {
+        Entry entry = new Entry(version, fragment, rows);
+        lock.lock();
+        try {
+            replayReads();
+            if (version != this.version
+                    || entry.weight() > maxWeight - maxWindowWeight
+                    || entries.putIfAbsent(fragment, entry) != null) {
+                return;
+            }
+            window.put(fragment, entry);
+            windowWeight += entry.weight();
+            Iterator<Entry> eldest = window.values().iterator();
+            while (windowWeight > maxWindowWeight && eldest.hasNext()) {
+                Entry candidate = eldest.next();
+                eldest.remove();
+                windowWeight -= candidate.weight();
+                admit(candidate);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Buffers the lookup of the fragment, replaying the buffer first when it is full; when another thread is replaying
+     * it, the lookup is dropped rather than waited for.
+     */
+    private void recordRead(String fragment) {
+        while (true) {
+            long written = readsWritten.get();
+            if (written - readsReplayed.get() >= READ_BUFFER_SIZE) {
+                if (!lock.tryLock()) {
+                    return;
+                }
+                try {
+                    replayReads();
+                } finally {
+                    lock.unlock();
+                }
+            } else if (readsWritten.compareAndSet(written, written + 1)) {
+                reads.set((int) (written % READ_BUFFER_SIZE), fragment);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts the buffered lookups in the sketch and moves the entries they hit up; called with the lock held. A slot
+     * taken but not written yet is skipped, losing that lookup.
+     */
+    private void replayReads() {
+        long written = readsWritten.get();
+        for (long read = readsReplayed.get(); read < written; read++) {
+            String fragment = reads.getAndSet((int) (read % READ_BUFFER_SIZE), null);
+            if (fragment != null) {
+                sketch.increment(fragment);
+                find(fragment);
+            }
+        }
+        readsReplayed.set(written);
+    }
+
+    /**
+     * @return the entry of the fragment, moved up as a hit: to the end of the window or of the protected segment,
+     * from probation into the protected segment.
+     */
+    private Entry find(String fragment) {
+        Entry entry = window.remove(fragment);
+        if (entry != null) {
+            window.put(fragment, entry);
+            return entry;
+        }
+        entry = protectedSegment.remove(fragment);
+        if (entry != null) {
+            protectedSegment.put(fragment, entry);
+            return entry;
+        }
+        entry = probation.remove(fragment);
+        if (entry != null) {
+            probationWeight -= entry.weight();
+            protectedSegment.put(fragment, entry);
+            protectedWeight += entry.weight();
+            Iterator<Entry> eldest = protectedSegment.values().iterator();
+            while (protectedWeight > maxProtectedWeight && eldest.hasNext()) {
+                Entry demoted = eldest.next();
+                eldest.remove();
+                protectedWeight -= demoted.weight();
+                probation.put(demoted.fragment(), demoted);
+                probationWeight += demoted.weight();
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Moves the candidate pushed out of the window into probation, evicting the least recently used results of the
+     * main area for it as long as its fragment is more frequent than theirs; otherwise the candidate is evicted.
+     */
+    private void admit(Entry candidate) {
+        long maxMainWeight = maxWeight - maxWindowWeight;
+        int frequency = sketch.frequency(candidate.fragment());
+        while (probationWeight + protectedWeight + candidate.weight() > maxMainWeight) {
+            LinkedHashMap<String, Entry> segment = probation.isEmpty() ? protectedSegment : probation;
+            Entry victim = segment.values().iterator().next();
+            if (frequency <= sketch.frequency(victim.fragment())) {
+                entries.remove(candidate.fragment());
+                evictions.increment();
+                return;
+            }
+            segment.remove(victim.fragment());
+            entries.remove(victim.fragment());
+            if (segment == probation) {
+                probationWeight -= victim.weight();
+            } else {
+                protectedWeight -= victim.weight();
+            }
+            evictions.increment();
+        }
+        probation.put(candidate.fragment(), candidate);
+        probationWeight += candidate.weight();
+    }
+
+    /**
+     * Drops the results of the older snapshots; how often fragments are searched is still worth knowing.
+     */
+    private void clear(long version) {
+        this.version = version;
+        entries.clear();
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        windowWeight = 0;
+        probationWeight = 0;
+        protectedWeight = 0;
+    }
+
+    /**
+     * @param version the version of the snapshot the rows were found in
+     * @param rows the rows found, weighing one each on top of the entry itself
+     */
+    private record Entry(long version, String fragment, int[] rows) {
+        long weight() {
+            return 1L + rows.length;
+        }
+    }
+
+    /**
+     * Count-min sketch of how often each fragment is searched: four counters of at most 15 per fragment, the least
+     * of them being its estimate. Once as many searches as ten times its width are counted, every counter is halved.
+     */
+    static final class FrequencySketch {
+        private static final long[] SEEDS = {0x97CB3127L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0x9E3779B97F4A7C15L
+        };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] counters;
+        private final int shift;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(long expectedEntries) {
+            int width = Integer.highestOneBit((int) Math.min(Math.max(expectedEntries, 256), 1 << 16) * 2 - 1);
+            this.counters = new byte[SEEDS.length][width];
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(width);
+            this.sampleSize = width * 10;
+        }
+
+        int frequency(String key) {
+            long hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, counters[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        void increment(String key) {
+            long hash = key.hashCode();
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int index = index(hash, i);
+                if (counters[i][index] < MAX_COUNT) {
+                    counters[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                for (byte[] row : counters) {
+                    for (int j = 0; j < row.length; j++) {
+                        row[j] >>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        private int index(long hash, int i) {
+            return (int) (((hash + SEEDS[i]) * SEEDS[i]) >>> shift);
+        }
+    }
+}
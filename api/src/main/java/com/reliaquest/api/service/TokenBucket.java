@@ -0,0 +1,52 @@
+package com.reliaquest.api.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Package protected, lock-free token bucket holding up to {@code burst} tokens, refilled at {@code rate} tokens per
+ * second. Its whole state is the {@link System#nanoTime()} at which it is full again, so taking a token is a single
+ * compare and set, and a full bucket can be dropped and created again without any difference.
+ */
+final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double rate, int burst, long now) {
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / rate));
+        this.burstNanos = nanosPerToken * Math.max(burst, 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 when a token was taken, otherwise the nanoseconds until one can be.
+     */
+    long tryTake(long now) {
+        return tryTake(now, 1);
+    }
+
+    /**
+     * Takes the tokens as soon as one is available, leaving the bucket in debt when there are fewer: the next token
+     * is then only available once the debt is refilled as well, so a single take costing more than the burst still
+     * counts in full against the rate.
+     *
+     * @return 0 when the tokens were taken, otherwise the nanoseconds until one can be.
+     */
+    long tryTake(long now, int tokens) {
+        while (true) {
+            long full = fullAt.get();
+            long start = full - now > 0 ? full : now;
+            long shortfall = start + nanosPerToken - now - burstNanos;
+            if (shortfall > 0) {
+                return shortfall;
+            }
+            if (fullAt.compareAndSet(full, start + nanosPerToken * Math.max(tokens, 1))) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
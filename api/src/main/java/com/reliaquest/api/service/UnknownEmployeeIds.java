@@ -0,0 +1,124 @@
+package com.reliaquest.api.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Package protected record of the Employee ids known not to exist, so lookups of them are answered without calling the
+ * Mock Employee Server: ids which are not UUIDs, ids the Mock Employee Server answered 404 for within the last
+ * {@code ttl}, at most {@code max-ids} of them, and ids the {@link EmployeeIdFilter} of the cached snapshot does not
+ * contain while that snapshot is younger than {@code max-snapshot-age}, by default {@code employee.max-staleness}, the
+ * age up to which the snapshot is served anyway. An older snapshot, such as one restored from disk, may miss Employees
+ * created since by other API instances, on other shards or on the Mock Employee Server directly, so its filter is not
+ * trusted. The ids created through this API are kept for the same ttl and always looked
+ * up, as a snapshot loaded while they were being created may not have them.
+ */
+@Component
+@Slf4j
+class UnknownEmployeeIds {
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxIds;
+    private final Duration maxSnapshotAge;
+    // Insertion ordered: as every id lives for the same ttl, the eldest entry is always the first to expire.
+    private final LinkedHashMap<UUID, Long> unknown = new LinkedHashMap<>();
+    private final LinkedHashMap<UUID, Long> created = new LinkedHashMap<>();
+
+    public UnknownEmployeeIds(
+            @Value("${employee.unknown-ids.enabled:true}") boolean enabled,
+            @Value("${employee.unknown-ids.ttl:30s}") Duration ttl,
+            @Value("${employee.unknown-ids.max-ids:10000}") int maxIds,
+            @Value("${employee.unknown-ids.max-snapshot-age:${employee.max-staleness:5m}}") Duration maxSnapshotAge) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxIds = Math.max(maxIds, 1);
+        this.maxSnapshotAge = maxSnapshotAge;
+    }
+
+    /**
+     * @param snapshot the cached snapshot, if any
+     * @return true when the id is certainly not the id of an Employee, false when it has to be looked up.
+     */
+    boolean isUnknown(String id, Optional<EmployeeSnapshot> snapshot) {
+        if (!enabled) {
+            return false;
+        }
+        UUID uuid = parse(id);
+        if (uuid == null) {
+            return true;
+        }
+        synchronized (this) {
+            long now = System.nanoTime();
+            expire(unknown, now);
+            expire(created, now);
+            if (unknown.containsKey(uuid)) {
+                log.debug("Employee {} was recently not found, not looking it up.", id);
+                return true;
+            }
+            if (created.containsKey(uuid)) {
+                return false;
+            }
+        }
+        Instant oldest = Instant.now().minus(maxSnapshotAge);
+        return snapshot.filter(loaded -> loaded.loadedAt().isAfter(oldest))
+                .map(loaded -> !loaded.derived(EmployeeIdFilter.class, EmployeeIdFilter::build)
+                        .mightContain(uuid))
+                .orElse(false);
+    }
+
+    /**
+     * Remembers the id the Mock Employee Server answered 404 for.
+     */
+    void rememberUnknown(String id) {
+        UUID uuid = parse(id);
+        if (enabled && uuid != null) {
+            remember(unknown, uuid);
+        }
+    }
+
+    void rememberCreated(UUID id) {
+        if (enabled && id != null) {
+            synchronized (this) {
+                unknown.remove(id);
+                remember(created, id);
+            }
+        }
+    }
+
+    synchronized void clear() {
+        unknown.clear();
+        created.clear();
+    }
+
+    private synchronized void remember(LinkedHashMap<UUID, Long> ids, UUID id) {
+        long now = System.nanoTime();
+        expire(ids, now);
+        ids.remove(id);
+        ids.put(id, now + ttlNanos);
+        if (ids.size() > maxIds) {
+            ids.remove(ids.keySet().iterator().next());
+        }
+    }
+
+    private static void expire(LinkedHashMap<UUID, Long> ids, long now) {
+        Iterator<Long> eldest = ids.values().iterator();
+        while (eldest.hasNext() && eldest.next() - now <= 0) {
+            eldest.remove();
+        }
+    }
+
+    private static UUID parse(String id) {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
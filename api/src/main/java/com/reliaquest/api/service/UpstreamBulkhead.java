@@ -0,0 +1,100 @@
+package com.reliaquest.api.service;
+
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Package protected admission control of the requests which have to wait for the Mock Employee Server, so they
+ * cannot take every request thread while it is slow or locked out. At most {@code max-concurrent} of them run at
+ * once and at most {@code max-queued} more wait for their turn, in order, for {@code max-wait} or what is left of
+ * their {@link RequestDeadline}; the others are shed right away with an {@link UpstreamUnavailableException}.
+ * <p>
+ * Every call is also charged to the {@link ClientQuota} of the client of the request, if any, before it may wait, as
+ * many times as it calls the Mock Employee Server.
+ */
+@Component
+@Slf4j
+class UpstreamBulkhead {
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final Duration maxWait;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public UpstreamBulkhead(
+            @Value("${employee.bulkhead.max-concurrent:32}") int maxConcurrent,
+            @Value("${employee.bulkhead.max-queued:16}") int maxQueued,
+            @Value("${employee.bulkhead.max-wait:50ms}") Duration maxWait) {
+        this.permits = new Semaphore(Math.max(maxConcurrent, 1), true);
+        this.maxQueued = Math.max(maxQueued, 0);
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * @throws UpstreamUnavailableException when the call is shed.
+     * @throws com.reliaquest.api.exceptions.ClientQuotaExceededException when the client made too many calls.
+     */
+    <T> T call(Supplier<T> call) {
+        return call(1, call);
+    }
+
+    /**
+     * @param upstreamCalls the number of calls to the Mock Employee Server the call makes
+     * @throws UpstreamUnavailableException when the call is shed.
+     * @throws com.reliaquest.api.exceptions.ClientQuotaExceededException when the client made too many calls.
+     */
+    <T> T call(int upstreamCalls, Supplier<T> call) {
+        ClientQuota.current().ifPresent(quota -> quota.takeUpstreamCalls(upstreamCalls));
+        acquire();
+        try {
+            return call.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    int queued() {
+        return queued.get();
+    }
+
+    private void acquire() {
+        try {
+            // Not the barging tryAcquire(): a free permit goes to the calls already waiting first.
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                throw shed("Too many calls are waiting for the Mock Employee Server.");
+            }
+            try {
+                Duration wait = RequestDeadline.current()
+                        .map(RequestDeadline::remaining)
+                        .filter(remaining -> remaining.compareTo(maxWait) < 0)
+                        .orElse(maxWait);
+                if (!permits.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw shed(String.format(
+                            "No call to the Mock Employee Server could be made within %d ms.", wait.toMillis()));
+                }
+            } finally {
+                queued.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw shed("Interrupted while waiting to call the Mock Employee Server.");
+        }
+    }
+
+    private static UpstreamUnavailableException shed(String message) {
+        log.debug("Shedding a request: {}", message);
+        return new UpstreamUnavailableException(message, RETRY_AFTER);
+    }
+}
@@ -0,0 +1,124 @@
+package com.reliaquest.api.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records every call to the Mock Employee Server as a {@link FlightEvents.UpstreamRequest}, committed once its answer
+ * has been read and closed, so the event covers the transfer of the answer and the time until its headers arrived is
+ * told apart. Calls go straight through while no recording asks for the event.
+ * <p>
+ * The route of a call is its path with the id of the Employee replaced by {@code {id}}, so the calls for every
+ * Employee add up to a single route and the events name no Employee.
+ */
+public class UpstreamRequestRecorder implements ClientHttpRequestInterceptor {
+    private static final String EMPLOYEE = "/api/v1/employee/";
+    private static final Set<String> EMPLOYEE_ROUTES = Set.of("search", "top", "highestSalary", "bulk");
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        FlightEvents.UpstreamRequest event = new FlightEvents.UpstreamRequest();
+        if (!event.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        long started = System.nanoTime();
+        event.begin();
+        event.method = request.getMethod().name();
+        event.route = route(request.getURI().getPath());
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+        } catch (IOException | RuntimeException e) {
+            event.timeToHeaders = System.nanoTime() - started;
+            event.commit();
+            throw e;
+        }
+        event.timeToHeaders = System.nanoTime() - started;
+        return new RecordedResponse(response, event);
+    }
+
+    /**
+     * @return the path, with whatever follows {@code /api/v1/employee/} which is not one of its routes as {@code {id}}.
+     */
+    static String route(String path) {
+        if (path == null || !path.startsWith(EMPLOYEE) || EMPLOYEE_ROUTES.contains(path.substring(EMPLOYEE.length()))) {
+            return path;
+        }
+        return EMPLOYEE + "{id}";
+    }
+
+    private static final class RecordedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse response;
+        private final FlightEvents.UpstreamRequest event;
+        private InputStream body;
+        private boolean closed;
+
+        private RecordedResponse(ClientHttpResponse response, FlightEvents.UpstreamRequest event) {
+            this.response = response;
+            this.event = event;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(response.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int read = super.read();
+                        if (read >= 0) {
+                            event.bytes++;
+                        }
+                        return read;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int read = super.read(buffer, offset, length);
+                        if (read > 0) {
+                            event.bytes += read;
+                        }
+                        return read;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    event.commit();
+                }
+            }
+        }
+    }
+}
@@ -5,9 +5,15 @@ import static java.util.Arrays.asList;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeFields;
+import com.reliaquest.api.dto.EmployeeFilter;
 import com.reliaquest.api.exceptions.UnableToObtainEmployeesException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
 import com.reliaquest.api.service.IEmployeeService;
+import java.time.Duration;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -16,6 +22,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.RequestBuilder;
@@ -62,6 +69,61 @@ public class EmployeeControllerTest {
         Assertions.assertEquals(2, employees.size());
     }
 
+    @Test
+    @DisplayName("Employees can be retrieved with only some of their fields")
+    void testGetAllEmployees_withFields_writesOnlyThoseFields() throws Exception {
+        // Given
+        EmployeeFields fields = EmployeeFields.parse("id,name");
+        Mockito.when(employeeService.getAllEmployees(fields)).thenReturn(TEST_EMPLOYEES);
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(EmployeeController.PATH + "?fields=name,id");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        String responseString = mvcResult.getResponse().getContentAsString();
+
+        // Assert
+        Assertions.assertEquals(
+                "[{\"id\":\"a5764857-ae35-34dc-8f25-a9c9e73aa898\",\"name\":\"John Doe\"},"
+                        + "{\"id\":\"2384f927-5e2f-3998-8baa-c768616287f5\",\"name\":\"Jane Doe\"}]",
+                responseString);
+    }
+
+    @Test
+    @DisplayName("Employees cannot be retrieved with an unknown field")
+    void testGetAllEmployees_returns400WhenFieldIsUnknown() throws Exception {
+        // Given
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(EmployeeController.PATH + "?fields=id,phone");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(400, mvcResult.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Employees are not read again for a client holding the current snapshot's ETag")
+    void testGetAllEmployees_returns304WhenETagMatchesSnapshot() throws Exception {
+        // Given
+        Mockito.when(employeeService.getSnapshotVersion()).thenReturn(OptionalLong.of(7));
+        Mockito.when(employeeService.getAllEmployees()).thenReturn(TEST_EMPLOYEES);
+        MvcResult first = mockMvc.perform(MockMvcRequestBuilders.get(EmployeeController.PATH))
+                .andReturn();
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(
+                        MockMvcRequestBuilders.get(EmployeeController.PATH).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn();
+
+        // Assert
+        Assertions.assertNotNull(eTag);
+        Assertions.assertEquals(304, mvcResult.getResponse().getStatus());
+        Assertions.assertEquals(0, mvcResult.getResponse().getContentLength());
+        Assertions.assertEquals("max-age=0", mvcResult.getResponse().getHeader(HttpHeaders.CACHE_CONTROL));
+        Mockito.verify(employeeService, Mockito.times(1)).getAllEmployees();
+    }
+
     @Test
     @DisplayName("Employees could not be retrieved")
     void testGetAllEmployees_returns500InternalServerErrorWhenEmployeesCouldNotBeRetrieved() throws Exception {
@@ -75,4 +137,165 @@ public class EmployeeControllerTest {
         // Assert
         Assertions.assertEquals(500, mvcResult.getResponse().getStatus());
     }
+
+    @Test
+    @DisplayName(
+            "Employees cannot be deleted while the Mock Employee Server throttles, and clients are told when to retry")
+    void testDeleteEmployeeById_returns503WithRetryAfterWhenServerThrottles() throws Exception {
+        // Given
+        Mockito.when(employeeService.attemptToDeleteEmployeeWithId("a5764857-ae35-34dc-8f25-a9c9e73aa898"))
+                .thenThrow(new UpstreamUnavailableException("Throttled.", Duration.ofSeconds(12)));
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.delete(EmployeeController.PATH + "/a5764857-ae35-34dc-8f25-a9c9e73aa898");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(503, mvcResult.getResponse().getStatus());
+        Assertions.assertEquals("12", mvcResult.getResponse().getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("Employees can be searched by a misspelled name")
+    void testGetEmployeesByFuzzyNameSearch_returnsClosestEmployees() throws Exception {
+        // Given
+        Mockito.when(employeeService.getEmployeesByFuzzyNameSearch("Jhon", 5, null, EmployeeFields.ALL))
+                .thenReturn(TEST_EMPLOYEES.subList(0, 1));
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get(EmployeeController.PATH + "/fuzzySearch/Jhon?limit=5");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        String responseString = mvcResult.getResponse().getContentAsString();
+
+        // Assert
+        List<Employee> employees = new ObjectMapper().readValue(responseString, new TypeReference<>() {});
+        Assertions.assertEquals(TEST_EMPLOYEES.subList(0, 1), employees);
+    }
+
+    @Test
+    @DisplayName("Employees cannot be searched by name with too many edits allowed")
+    void testGetEmployeesByFuzzyNameSearch_returns400WhenMaxDistanceIsTooLarge() throws Exception {
+        // Given
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get(EmployeeController.PATH + "/fuzzySearch/Jhon?maxDistance=4");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(400, mvcResult.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Employees cannot be searched by name with a limit over the maximum")
+    void testGetEmployeesByFuzzyNameSearch_returns400WhenLimitIsTooLarge() throws Exception {
+        // Given
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get(EmployeeController.PATH + "/fuzzySearch/Jhon?limit=2000000000");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(400, mvcResult.getResponse().getStatus());
+    }
+
+    @Test
+    @DisplayName("Employees can be looked up by several ids at once")
+    void testGetEmployeesByIds_returnsEmployees() throws Exception {
+        // Given
+        List<String> ids = List.of("a5764857-ae35-34dc-8f25-a9c9e73aa898", "2384f927-5e2f-3998-8baa-c768616287f5");
+        Mockito.when(employeeService.getEmployeesByIds(ids)).thenReturn(TEST_EMPLOYEES);
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get(EmployeeController.PATH + "/bulk").param("id", ids.toArray(String[]::new));
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        String responseString = mvcResult.getResponse().getContentAsString();
+
+        // Assert
+        List<Employee> employees = new ObjectMapper().readValue(responseString, new TypeReference<>() {});
+        Assertions.assertEquals(TEST_EMPLOYEES, employees);
+    }
+
+    @Test
+    @DisplayName("Employees cannot be looked up by more ids at once than the maximum")
+    void testGetEmployeesByIds_returns400WhenTooManyIds() throws Exception {
+        // Given
+        String[] ids = new String[101];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = UUID.randomUUID().toString();
+        }
+        RequestBuilder requestBuilder =
+                MockMvcRequestBuilders.get(EmployeeController.PATH + "/bulk").param("id", ids);
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(400, mvcResult.getResponse().getStatus());
+        Mockito.verifyNoInteractions(employeeService);
+    }
+
+    @Test
+    @DisplayName("Employee analytics can be retrieved")
+    void testGetEmployeeAnalytics_returnsAnalytics() throws Exception {
+        // Given
+        EmployeeAnalytics analytics = new EmployeeAnalytics(
+                2,
+                new EmployeeAnalytics.Distribution(100000, 115000, 107500.0, 100000, 115000, 115000, List.of()),
+                new EmployeeAnalytics.Distribution(35, 45, 40.0, 35, 45, 45, List.of()),
+                List.of());
+        Mockito.when(employeeService.getAnalytics()).thenReturn(analytics);
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(EmployeeController.PATH + "/analytics");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        String responseString = mvcResult.getResponse().getContentAsString();
+
+        // Assert
+        Assertions.assertEquals(200, mvcResult.getResponse().getStatus());
+        Assertions.assertEquals(analytics, new ObjectMapper().readValue(responseString, EmployeeAnalytics.class));
+    }
+
+    @Test
+    @DisplayName("Employees can be filtered by salary, age and title")
+    void testGetEmployeesByFilter_returnsMatchingEmployees() throws Exception {
+        // Given
+        EmployeeFilter expectedFilter = new EmployeeFilter(
+                100000,
+                null,
+                30,
+                40,
+                List.of("MD"),
+                new EmployeeFilter.Sort(EmployeeFilter.SortField.SALARY, true),
+                10);
+        Mockito.when(employeeService.getEmployeesByFilter(expectedFilter, EmployeeFields.ALL))
+                .thenReturn(TEST_EMPLOYEES.subList(1, 2));
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(EmployeeController.PATH
+                + "/filter?minSalary=100000&minAge=30&maxAge=40&title=MD&sort=-salary&limit=10");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+        String responseString = mvcResult.getResponse().getContentAsString();
+
+        // Assert
+        List<Employee> employees = new ObjectMapper().readValue(responseString, new TypeReference<>() {});
+        Assertions.assertEquals(TEST_EMPLOYEES.subList(1, 2), employees);
+    }
+
+    @Test
+    @DisplayName("Employees cannot be sorted by an unknown field")
+    void testGetEmployeesByFilter_returns400WhenSortIsUnknown() throws Exception {
+        // Given
+        RequestBuilder requestBuilder = MockMvcRequestBuilders.get(EmployeeController.PATH + "/filter?sort=email");
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(requestBuilder).andReturn();
+
+        // Assert
+        Assertions.assertEquals(400, mvcResult.getResponse().getStatus());
+    }
 }
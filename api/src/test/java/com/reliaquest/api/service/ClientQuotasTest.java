@@ -0,0 +1,87 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.api.exceptions.ClientQuotaExceededException;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ClientQuotasTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @DisplayName("Test Admit lets a burst through, then refuses the client until a request is refilled")
+    @Test
+    void testAdmit_refusesClientOverItsQuota() {
+        // Given
+        ClientQuotas quotas = new ClientQuotas(new ClientQuotas.Limit(0.5, 3), new ClientQuotas.Limit(1, 1), 10);
+        long now = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            quotas.admit("noisy", now);
+        }
+
+        // When
+        ClientQuotaExceededException exception =
+                assertThrows(ClientQuotaExceededException.class, () -> quotas.admit("noisy", now));
+
+        // Assert
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertDoesNotThrow(() -> quotas.admit("quiet", now));
+        assertDoesNotThrow(() -> quotas.admit("noisy", now + 2 * SECOND));
+    }
+
+    @DisplayName("Test Take Upstream Call charges a budget of its own to the client")
+    @Test
+    void testTakeUpstreamCall_refusesClientOverItsUpstreamQuota() {
+        // Given
+        ClientQuotas quotas = new ClientQuotas(new ClientQuotas.Limit(100, 100), new ClientQuotas.Limit(0.2, 2), 10);
+        ClientQuota quota = quotas.admit("client");
+        quota.takeUpstreamCall();
+        quota.takeUpstreamCall();
+
+        // When
+        ClientQuotaExceededException exception =
+                assertThrows(ClientQuotaExceededException.class, quota::takeUpstreamCall);
+
+        // Assert
+        assertEquals(Duration.ofSeconds(5), exception.getRetryAfter());
+        assertSame(quota, quotas.admit("client"));
+    }
+
+    @DisplayName("Test Take Upstream Calls charges every call, leaving the client in debt past its burst")
+    @Test
+    void testTakeUpstreamCalls_chargesEveryCall() {
+        // Given
+        ClientQuotas quotas = new ClientQuotas(new ClientQuotas.Limit(100, 100), new ClientQuotas.Limit(1, 5), 10);
+        ClientQuota quota = quotas.admit("bulk");
+
+        // When
+        quota.takeUpstreamCalls(20);
+
+        // Assert
+        ClientQuotaExceededException exception =
+                assertThrows(ClientQuotaExceededException.class, quota::takeUpstreamCall);
+        assertEquals(Duration.ofSeconds(16), exception.getRetryAfter());
+    }
+
+    @DisplayName("Test Admit keeps at most the maximum number of clients, forgetting idle ones first")
+    @Test
+    void testAdmit_evictsIdleClientsFirst() {
+        // Given
+        ClientQuotas quotas = new ClientQuotas(new ClientQuotas.Limit(1, 2), new ClientQuotas.Limit(1, 1), 2);
+        long now = System.nanoTime();
+        quotas.admit("idle", now);
+        quotas.admit("busy", now + SECOND);
+        quotas.admit("busy", now + SECOND);
+
+        // When
+        quotas.admit("new", now + SECOND);
+
+        // Assert
+        assertEquals(2, quotas.size());
+        assertThrows(ClientQuotaExceededException.class, () -> quotas.admit("busy", now + SECOND));
+    }
+}
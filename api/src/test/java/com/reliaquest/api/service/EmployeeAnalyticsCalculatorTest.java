@@ -0,0 +1,109 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.EmployeeAnalytics;
+import com.reliaquest.api.dto.EmployeeAnalytics.HistogramBucket;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeAnalyticsCalculatorTest {
+
+    @DisplayName("Test Analytics match the statistics computed from the Employee list")
+    @Test
+    void testCalculate_matchesStatisticsOfTheEmployees() throws IOException {
+        // Set
+        List<RepositoryEmployee> employees = readEmployees("employees_test.json");
+        int[] salaries = employees.stream()
+                .mapToInt(RepositoryEmployee::employee_salary)
+                .sorted()
+                .toArray();
+        int[] ages = employees.stream()
+                .mapToInt(RepositoryEmployee::employee_age)
+                .sorted()
+                .toArray();
+
+        // When
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.calculate(EmployeeMapper.mapToSnapshot(employees));
+
+        // Assert
+        assertEquals(50, analytics.count());
+        assertEquals(salaries[0], analytics.salary().min());
+        assertEquals(salaries[salaries.length - 1], analytics.salary().max());
+        assertEquals(
+                employees.stream()
+                        .mapToInt(RepositoryEmployee::employee_salary)
+                        .average()
+                        .getAsDouble(),
+                analytics.salary().mean(),
+                0.001);
+        long salaryBinWidth = (salaries[salaries.length - 1] - salaries[0]) / EmployeeAnalyticsCalculator.MAX_BINS + 1;
+        assertTrue(Math.abs(percentile(salaries, 0.5) - analytics.salary().p50()) <= salaryBinWidth);
+        assertTrue(Math.abs(percentile(salaries, 0.9) - analytics.salary().p90()) <= salaryBinWidth);
+        assertEquals(percentile(ages, 0.5), analytics.age().p50());
+        assertEquals(percentile(ages, 0.9), analytics.age().p90());
+        assertEquals(percentile(ages, 0.99), analytics.age().p99());
+        assertEquals(
+                50,
+                analytics.salary().histogram().stream()
+                        .mapToLong(HistogramBucket::count)
+                        .sum());
+        assertEquals(
+                50,
+                analytics.titles().stream()
+                        .mapToInt(EmployeeAnalytics.TitleAggregate::count)
+                        .sum());
+        assertEquals("Design Analyst", analytics.titles().get(0).title());
+    }
+
+    @DisplayName("Test Analytics of an empty snapshot")
+    @Test
+    void testCalculate_whenNoEmployees() {
+        // When
+        EmployeeAnalytics analytics = EmployeeAnalyticsCalculator.calculate(EmployeeSnapshot.empty());
+
+        // Assert
+        assertEquals(0, analytics.count());
+        assertNull(analytics.salary().max());
+        assertNull(analytics.age().p50());
+        assertTrue(analytics.titles().isEmpty());
+    }
+
+    @DisplayName("Test Analytics are memoized per snapshot")
+    @Test
+    void testCalculate_isMemoizedPerSnapshot() {
+        // Set
+        EmployeeSnapshot snapshot = EmployeeSnapshot.builder(1)
+                .add(UUID.randomUUID(), "Jane Doe", 115000, 35, "MD", "jane.doe@company.com")
+                .build();
+
+        // When
+        EmployeeAnalytics first = snapshot.derived(EmployeeAnalytics.class, EmployeeAnalyticsCalculator::calculate);
+        EmployeeAnalytics second = snapshot.derived(EmployeeAnalytics.class, EmployeeAnalyticsCalculator::calculate);
+
+        // Assert
+        assertTrue(first == second);
+        assertEquals(115000, first.salary().p99());
+    }
+
+    private static int percentile(int[] sorted, double quantile) {
+        return sorted[(int) Math.ceil(quantile * sorted.length) - 1];
+    }
+
+    private static List<RepositoryEmployee> readEmployees(String resource) throws IOException {
+        try (InputStream inputStream =
+                EmployeeAnalyticsCalculatorTest.class.getClassLoader().getResourceAsStream(resource)) {
+            Response<List<RepositoryEmployee>> response =
+                    new ObjectMapper().readValue(inputStream, new TypeReference<>() {});
+            return response.data();
+        }
+    }
+}
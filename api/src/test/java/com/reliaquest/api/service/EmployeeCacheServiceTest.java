@@ -0,0 +1,86 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.web.client.RestClient;
+
+public class EmployeeCacheServiceTest {
+    private final EmployeeSnapshot restored = EmployeeSnapshot.builder(1)
+            .add(UUID.randomUUID(), "Jane Doe", 200, 45, "Engineer", "jane@company.com")
+            .build();
+    private final FailingEmployeeServerClient employeeServerClient = new FailingEmployeeServerClient();
+
+    @DisplayName("Test Restore Snapshot keeps serving the restored snapshot while it is fresh enough")
+    @Test
+    void testRestoreSnapshot_keepsAFreshSnapshotWhenRevalidationFails() {
+        // Set
+        EmployeeCacheService employeeCacheService = employeeCacheService(Duration.ofMinutes(5));
+
+        // When
+        employeeCacheService.restoreSnapshot();
+
+        // Assert
+        assertEquals(1, employeeServerClient.calls.get());
+        assertSame(restored, employeeCacheService.peekSnapshot().orElseThrow());
+    }
+
+    @DisplayName("Test Restore Snapshot evicts the restored snapshot once older than the maximum staleness")
+    @Test
+    void testRestoreSnapshot_evictsAStaleSnapshotWhenRevalidationFails() {
+        // Set
+        EmployeeCacheService employeeCacheService = employeeCacheService(Duration.ZERO);
+
+        // When
+        employeeCacheService.restoreSnapshot();
+
+        // Assert
+        assertEquals(1, employeeServerClient.calls.get());
+        assertTrue(employeeCacheService.peekSnapshot().isEmpty());
+    }
+
+    private EmployeeCacheService employeeCacheService(Duration maxStaleness) {
+        return new EmployeeCacheService(
+                employeeServerClient,
+                new ConcurrentMapCacheManager("employees"),
+                new EmployeeSnapshotStore("", Runnable::run) {
+                    @Override
+                    Optional<EmployeeSnapshot> load() {
+                        return Optional.of(restored);
+                    }
+                },
+                Runnable::run,
+                maxStaleness);
+    }
+
+    private static final class FailingEmployeeServerClient extends EmployeeServerClient {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FailingEmployeeServerClient() {
+            super(
+                    RestClient.builder(),
+                    List.of(),
+                    Runnable::run,
+                    Duration.ofSeconds(2),
+                    false,
+                    Duration.ofMillis(10),
+                    0.05,
+                    Duration.ofSeconds(60));
+        }
+
+        @Override
+        EmployeeSnapshot fetchAllEmployees() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Mock Employee Server is down.");
+        }
+    }
+}
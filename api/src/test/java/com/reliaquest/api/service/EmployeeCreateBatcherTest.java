@@ -0,0 +1,218 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withBadRequest;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+public class EmployeeCreateBatcherTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private MockRestServiceServer mockServer;
+    private EmployeeServerClient employeeServerClient;
+    private CacheManager cacheManager;
+    private EmployeeCacheService employeeCacheService;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder restClientBuilder = RestClient.builder().baseUrl("http://localhost:8112");
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        employeeServerClient = new EmployeeServerClient(
+                restClientBuilder,
+                List.of(),
+                Runnable::run,
+                Duration.ofSeconds(2),
+                false,
+                Duration.ofMillis(10),
+                0.05,
+                Duration.ofSeconds(60));
+        cacheManager = new ConcurrentMapCacheManager("employees");
+        employeeCacheService = new EmployeeCacheService(
+                employeeServerClient,
+                cacheManager,
+                new EmployeeSnapshotStore("", Runnable::run),
+                Runnable::run,
+                Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @DisplayName("Test Create sends concurrent creates as one batch and evicts the snapshot once")
+    @Test
+    void testCreate_batchesConcurrentCreates() {
+        // Given
+        cacheManager.getCache("employees").put(SimpleKey.EMPTY, EmployeeSnapshot.empty());
+        mockServer
+                .expect(ExpectedCount.once(), requestTo("http://localhost:8112/api/v1/employee/bulk"))
+                .andRespond(request -> {
+                    EmployeeCreates creates = objectMapper.readValue(
+                            ((MockClientHttpRequest) request).getBodyAsString(), EmployeeCreates.class);
+                    String body = objectMapper.writeValueAsString(new Response<>(
+                            creates.employees().stream().map(this::created).toList(), Response.Status.HANDLED, null));
+                    return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        EmployeeCreateBatcher batcher = new EmployeeCreateBatcher(
+                employeeServerClient, employeeCacheService, true, 3, Duration.ofSeconds(5), 32);
+
+        // When
+        List<CompletableFuture<RepositoryEmployee>> created = IntStream.range(0, 3)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> batcher.create(new EmployeeCreate("Employee " + i, 100, 30, "Engineer")), callers))
+                .toList();
+
+        // Assert
+        for (int i = 0; i < created.size(); i++) {
+            assertEquals("Employee " + i, created.get(i).join().employee_name());
+        }
+        mockServer.verify();
+        assertTrue(employeeCacheService.peekSnapshot().isEmpty());
+    }
+
+    @DisplayName("Test Create falls back to single creates when the batch is rejected")
+    @Test
+    void testCreate_rejectedBatchIsCreatedOneByOne() {
+        // Given
+        mockServer
+                .expect(requestTo("http://localhost:8112/api/v1/employee/bulk"))
+                .andRespond(withBadRequest());
+        mockServer
+                .expect(ExpectedCount.times(2), requestTo("http://localhost:8112/api/v1/employee"))
+                .andRespond(request -> {
+                    EmployeeCreate create = objectMapper.readValue(
+                            ((MockClientHttpRequest) request).getBodyAsString(), EmployeeCreate.class);
+                    if (create.salary() == null) {
+                        return withBadRequest().createResponse(request);
+                    }
+                    String body = objectMapper.writeValueAsString(
+                            new Response<>(created(create), Response.Status.HANDLED, null));
+                    return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        EmployeeCreateBatcher batcher = new EmployeeCreateBatcher(
+                employeeServerClient, employeeCacheService, true, 2, Duration.ofSeconds(5), 32);
+
+        // When
+        CompletableFuture<RepositoryEmployee> valid = CompletableFuture.supplyAsync(
+                () -> batcher.create(new EmployeeCreate("Jane Doe", 100, 30, "Engineer")), callers);
+        CompletableFuture<RepositoryEmployee> invalid = CompletableFuture.supplyAsync(
+                () -> batcher.create(new EmployeeCreate("John Doe", null, 30, "Engineer")), callers);
+
+        // Assert
+        assertEquals("Jane Doe", valid.join().employee_name());
+        CompletionException exception = assertThrows(CompletionException.class, invalid::join);
+        assertTrue(exception.getCause() instanceof HttpClientErrorException.BadRequest);
+        mockServer.verify();
+    }
+
+    @DisplayName("Test Create stops waiting for the batch once the request deadline passes")
+    @Test
+    void testCreate_waitsForTheBatchUntilTheDeadline() throws InterruptedException {
+        // Given
+        mockServer
+                .expect(ExpectedCount.once(), requestTo("http://localhost:8112/api/v1/employee/bulk"))
+                .andRespond(request -> {
+                    EmployeeCreates creates = objectMapper.readValue(
+                            ((MockClientHttpRequest) request).getBodyAsString(), EmployeeCreates.class);
+                    String body = objectMapper.writeValueAsString(new Response<>(
+                            creates.employees().stream().map(this::created).toList(), Response.Status.HANDLED, null));
+                    LockSupport.parkNanos(Duration.ofMillis(500).toNanos());
+                    return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        EmployeeCreateBatcher batcher = new EmployeeCreateBatcher(
+                employeeServerClient, employeeCacheService, true, 2, Duration.ofSeconds(5), 32);
+
+        // When
+        CompletableFuture<RepositoryEmployee> leader = CompletableFuture.supplyAsync(
+                () -> batcher.create(new EmployeeCreate("Jane Doe", 100, 30, "Engineer")), callers);
+        Thread.sleep(100);
+        CompletableFuture<RepositoryEmployee> follower = CompletableFuture.supplyAsync(
+                () -> {
+                    MockHttpServletRequest request = new MockHttpServletRequest();
+                    request.setAttribute(RequestDeadline.ATTRIBUTE, RequestDeadline.after(Duration.ofMillis(50)));
+                    RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+                    try {
+                        return batcher.create(new EmployeeCreate("John Doe", 200, 40, "Engineer"));
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                },
+                callers);
+
+        // Assert
+        CompletionException exception = assertThrows(CompletionException.class, follower::join);
+        assertTrue(exception.getCause() instanceof UpstreamTimeoutException);
+        assertEquals("Jane Doe", leader.join().employee_name());
+        mockServer.verify();
+    }
+
+    @DisplayName("Test Create sends a batch once it holds as many creates as may run at once")
+    @Test
+    void testCreate_capsTheBatchSizeAtTheBulkheadConcurrency() {
+        // Given
+        mockServer
+                .expect(ExpectedCount.once(), requestTo("http://localhost:8112/api/v1/employee/bulk"))
+                .andRespond(request -> {
+                    EmployeeCreates creates = objectMapper.readValue(
+                            ((MockClientHttpRequest) request).getBodyAsString(), EmployeeCreates.class);
+                    String body = objectMapper.writeValueAsString(new Response<>(
+                            creates.employees().stream().map(this::created).toList(), Response.Status.HANDLED, null));
+                    return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        EmployeeCreateBatcher batcher = new EmployeeCreateBatcher(
+                employeeServerClient, employeeCacheService, true, 50, Duration.ofSeconds(30), 2);
+        long started = System.nanoTime();
+
+        // When
+        List<CompletableFuture<RepositoryEmployee>> created = IntStream.range(0, 2)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> batcher.create(new EmployeeCreate("Employee " + i, 100, 30, "Engineer")), callers))
+                .toList();
+        created.forEach(CompletableFuture::join);
+
+        // Assert
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(10)) < 0);
+        mockServer.verify();
+    }
+
+    private RepositoryEmployee created(EmployeeCreate create) {
+        return new RepositoryEmployee(
+                UUID.randomUUID().toString(),
+                create.name(),
+                create.salary(),
+                create.age(),
+                create.title(),
+                "employee@company.com");
+    }
+}
@@ -0,0 +1,112 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeFilter;
+import com.reliaquest.api.dto.EmployeeFilter.Sort;
+import com.reliaquest.api.dto.EmployeeFilter.SortField;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeIndexesTest {
+    private EmployeeSnapshot snapshot;
+    private EmployeeIndexes indexes;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream inputStream =
+                EmployeeIndexesTest.class.getClassLoader().getResourceAsStream("employees_test.json")) {
+            Response<List<RepositoryEmployee>> response =
+                    new ObjectMapper().readValue(inputStream, new TypeReference<>() {});
+            snapshot = EmployeeMapper.mapToSnapshot(response.data());
+        }
+        indexes = EmployeeIndexes.build(snapshot);
+    }
+
+    @DisplayName("Test Filter by salary and age ranges keeps snapshot order")
+    @Test
+    void testFilter_bySalaryAndAgeRanges() {
+        // When
+        List<Employee> employees = filter(new EmployeeFilter(200000, 400000, 30, 40, null, null, null));
+
+        // Assert
+        assertEquals(
+                expected(e -> e.salary() >= 200000 && e.salary() <= 400000 && e.age() >= 30 && e.age() <= 40),
+                employees);
+    }
+
+    @DisplayName("Test Filter by title and minimum salary")
+    @Test
+    void testFilter_byTitleAndMinimumSalary() {
+        // When
+        List<Employee> employees =
+                filter(new EmployeeFilter(50000, null, null, null, List.of("Design Analyst"), null, null));
+
+        // Assert
+        assertEquals(expected(e -> e.salary() >= 50000 && "Design Analyst".equals(e.title())), employees);
+        assertEquals(1, employees.size());
+    }
+
+    @DisplayName("Test Filter sorted by descending salary with a limit")
+    @Test
+    void testFilter_sortedByDescendingSalaryWithLimit() {
+        // When
+        List<Employee> employees =
+                filter(new EmployeeFilter(null, null, 40, null, null, new Sort(SortField.SALARY, true), 5));
+
+        // Assert
+        assertEquals(
+                snapshot.asEmployeeList().stream()
+                        .filter(e -> e.age() >= 40)
+                        .sorted(Comparator.comparing(Employee::salary).reversed())
+                        .limit(5)
+                        .toList(),
+                employees);
+    }
+
+    @DisplayName("Test Filter sorted by name when driven by the salary index")
+    @Test
+    void testFilter_sortedByNameDrivenBySalary() {
+        // When
+        List<Employee> employees =
+                filter(new EmployeeFilter(100000, 300000, null, null, null, new Sort(SortField.NAME, false), null));
+
+        // Assert
+        assertEquals(
+                snapshot.asEmployeeList().stream()
+                        .filter(e -> e.salary() >= 100000 && e.salary() <= 300000)
+                        .sorted(Comparator.comparing(Employee::name))
+                        .toList(),
+                employees);
+    }
+
+    @DisplayName("Test Filter without predicates returns every Employee")
+    @Test
+    void testFilter_withoutPredicates() {
+        // When
+        List<Employee> employees = filter(new EmployeeFilter(null, null, null, null, null, null, null));
+
+        // Assert
+        assertEquals(snapshot.asEmployeeList(), employees);
+    }
+
+    private List<Employee> filter(EmployeeFilter filter) {
+        return Arrays.stream(indexes.filter(filter))
+                .mapToObj(snapshot::employee)
+                .toList();
+    }
+
+    private List<Employee> expected(Predicate<Employee> predicate) {
+        return snapshot.asEmployeeList().stream().filter(predicate).toList();
+    }
+}
@@ -0,0 +1,151 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+public class EmployeeServerClientTest {
+    private static final String FIRST_SHARD_ID = "11111111-1111-1111-1111-111111111111";
+    private static final String SECOND_SHARD_ID = "de567c35-3067-411b-957f-60f0f487cf9b";
+
+    private MockRestServiceServer mockServer;
+    private EmployeeServerClient employeeServerClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder)
+                .ignoreExpectOrder(true)
+                .build();
+        employeeServerClient = new EmployeeServerClient(
+                restClientBuilder,
+                List.of("shard-a:8112", "shard-b:8113"),
+                Runnable::run,
+                Duration.ofSeconds(2),
+                false,
+                Duration.ofMillis(10),
+                0.05,
+                Duration.ofSeconds(60));
+    }
+
+    @DisplayName("Test Fetch Employee goes to the shard owning the id")
+    @Test
+    void testFetchEmployee_routesByIdHash() {
+        // Given
+        mockServer
+                .expect(requestTo("http://shard-b:8113/api/v1/employee/" + SECOND_SHARD_ID))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess(
+                        "{\"data\":" + employee(SECOND_SHARD_ID, "Dr. Homer Conn", 422300) + "}",
+                        MediaType.APPLICATION_JSON));
+
+        // When
+        Response<RepositoryEmployee> response = employeeServerClient.fetchEmployee(SECOND_SHARD_ID);
+
+        // Assert
+        mockServer.verify();
+        assertEquals("Dr. Homer Conn", response.data().employee_name());
+    }
+
+    @DisplayName("Test Fetch Top Employees merges the best paid Employees of every shard")
+    @Test
+    void testFetchTopEmployees_mergesShards() {
+        // Given
+        mockServer
+                .expect(requestTo("http://shard-a:8112/api/v1/employee/top?limit=2"))
+                .andRespond(withSuccess(
+                        "{\"data\":[" + employee(FIRST_SHARD_ID, "Leisa Terry", 300) + ","
+                                + employee("22222222-2222-2222-2222-222222222222", "Tanner Terry", 100) + "]}",
+                        MediaType.APPLICATION_JSON));
+        mockServer
+                .expect(requestTo("http://shard-b:8113/api/v1/employee/top?limit=2"))
+                .andRespond(withSuccess(
+                        "{\"data\":[" + employee(SECOND_SHARD_ID, "Dr. Homer Conn", 200) + "]}",
+                        MediaType.APPLICATION_JSON));
+
+        // When
+        Response<List<RepositoryEmployee>> response = employeeServerClient.fetchTopEmployees(2);
+
+        // Assert
+        mockServer.verify();
+        assertEquals(
+                List.of("Leisa Terry", "Dr. Homer Conn"),
+                response.data().stream().map(RepositoryEmployee::employee_name).toList());
+    }
+
+    @DisplayName("Test Fetch Highest Salary takes the highest salary of every shard")
+    @Test
+    void testFetchHighestSalary_takesTheMaximum() {
+        // Given
+        mockServer
+                .expect(requestTo("http://shard-a:8112/api/v1/employee/highestSalary"))
+                .andRespond(withSuccess("{\"data\":300}", MediaType.APPLICATION_JSON));
+        mockServer
+                .expect(requestTo("http://shard-b:8113/api/v1/employee/highestSalary"))
+                .andRespond(withSuccess("{\"data\":477611}", MediaType.APPLICATION_JSON));
+
+        // When
+        Response<Integer> response = employeeServerClient.fetchHighestSalary();
+
+        // Assert
+        mockServer.verify();
+        assertEquals(477611, response.data());
+    }
+
+    @DisplayName("Test Delete Employee reports a throttled server with the Retry-After it asks for")
+    @Test
+    void testDeleteEmployee_reportsThrottlingWithRetryAfter() {
+        // Given
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "7");
+        mockServer
+                .expect(requestTo("http://shard-b:8113/api/v1/employee/" + SECOND_SHARD_ID))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS).headers(headers));
+
+        // When
+        UpstreamUnavailableException exception = assertThrows(
+                UpstreamUnavailableException.class, () -> employeeServerClient.deleteEmployee(SECOND_SHARD_ID));
+
+        // Assert
+        mockServer.verify();
+        assertEquals(Duration.ofSeconds(7), exception.getRetryAfter());
+    }
+
+    @DisplayName("Test Fetch Employee reports a failing server with a Retry-After of at least a second")
+    @Test
+    void testFetchEmployee_reportsFailureWithMinimalRetryAfter() {
+        // Given
+        mockServer
+                .expect(requestTo("http://shard-b:8113/api/v1/employee/" + SECOND_SHARD_ID))
+                .andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // When
+        UpstreamUnavailableException exception = assertThrows(
+                UpstreamUnavailableException.class, () -> employeeServerClient.fetchEmployee(SECOND_SHARD_ID));
+
+        // Assert
+        mockServer.verify();
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+    }
+
+    private static String employee(String id, String name, int salary) {
+        return String.format("{\"id\":\"%s\",\"employee_name\":\"%s\",\"employee_salary\":%d}", id, name, salary);
+    }
+}
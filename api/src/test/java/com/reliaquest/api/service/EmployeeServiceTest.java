@@ -1,7 +1,25 @@
 package com.reliaquest.api.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
 import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeFields;
 import com.reliaquest.api.exceptions.EmployeeNotFoundException;
+import com.reliaquest.api.exceptions.IdempotencyKeyReusedException;
+import com.reliaquest.api.exceptions.InvalidIdempotencyKeyException;
+import com.reliaquest.api.exceptions.UnableToObtainEmployeesException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -15,24 +33,19 @@ import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureMockR
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.List;
-import java.util.OptionalInt;
-import java.util.UUID;
-
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
-import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
-
-@SpringBootTest
+@SpringBootTest(properties = "employee.warm-up.enabled=false")
 @AutoConfigureMockRestServiceServer
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTest {
@@ -52,6 +65,12 @@ public class EmployeeServiceTest {
     @Value("classpath:employees_test.json")
     private Resource resource;
 
+    @Value("classpath:search_dr_test.json")
+    private Resource searchResource;
+
+    @Value("classpath:top_five_test.json")
+    private Resource topFiveResource;
+
     @Value("classpath:empty_test.json")
     private Resource emptyResource;
 
@@ -99,6 +118,36 @@ public class EmployeeServiceTest {
         assertEquals(0, employees.size());
     }
 
+    @DisplayName("Test Employee Get answers from the last snapshot, flagged as stale, while the server throttles")
+    @Test
+    void testGetEmployees_answersStaleWhenServerThrottles() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(requestTo("http://localhost:8112/api/v1/employee"))
+                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+        mockServer
+                .expect(requestTo("http://localhost:8112/api/v1/employee"))
+                .andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+        employeeService.getAllEmployees();
+        employeeService.restEmployeeCache();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        try {
+            // When
+            List<Employee> employees = employeeService.getAllEmployees();
+
+            // Assert
+            mockServer.verify();
+            assertEquals(50, employees.size());
+            assertNotNull(response.getHeader(HttpHeaders.AGE));
+            assertEquals("110 - \"Response is Stale\"", response.getHeader(HttpHeaders.WARNING));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     @DisplayName("Test Employees Search by a Name Where Multiple Found")
     @Test
     void testGetEmployeesByNameSearch_whenMultipleEmployeesAreFound() {
@@ -106,8 +155,8 @@ public class EmployeeServiceTest {
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
                 .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/search?name=Dr."))
+                .andRespond(withSuccess(searchResource, MediaType.APPLICATION_JSON));
 
         List<Employee> employees = employeeService.getEmployeesByNameSearch("Dr.");
         mockServer.verify();
@@ -121,8 +170,8 @@ public class EmployeeServiceTest {
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
                 .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/search?name=Dr%20Nobody"))
+                .andRespond(withSuccess(emptyResource, MediaType.APPLICATION_JSON));
 
         List<Employee> employees = employeeService.getEmployeesByNameSearch("Dr Nobody");
         mockServer.verify();
@@ -136,14 +185,52 @@ public class EmployeeServiceTest {
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
                 .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/search?name=Bernetta"))
+                .andRespond(withSuccess(oneEmployee, MediaType.APPLICATION_JSON));
 
         List<Employee> employees = employeeService.getEmployeesByNameSearch("Bernetta");
         mockServer.verify();
         assertEquals(1, employees.size());
     }
 
+    @DisplayName("Test Employees Search by a Name Asks the Server for the Requested Fields Only")
+    @Test
+    void testGetEmployeesByNameSearch_withFields_pushesFieldsToServer() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/search?name=Dr.&fields=name,salary"))
+                .andRespond(withSuccess(
+                        "{\"data\":[{\"employee_name\":\"Dr. Who\",\"employee_salary\":1000}],"
+                                + "\"status\":\"Successfully processed request.\"}",
+                        MediaType.APPLICATION_JSON));
+
+        List<Employee> employees = employeeService.getEmployeesByNameSearch("Dr.", EmployeeFields.parse("salary,name"));
+        mockServer.verify();
+        assertEquals(List.of(new Employee(null, "Dr. Who", 1000, null, null, null)), employees);
+    }
+
+    @DisplayName("Test Employees Search by a Name Uses the Cached Employees")
+    @Test
+    void testGetEmployeesByNameSearch_whenEmployeesAreCached() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(ExpectedCount.once(), method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
+                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+
+        employeeService.getAllEmployees();
+        List<Employee> employees = employeeService.getEmployeesByNameSearch("Dr.");
+        List<String> top5 = employeeService.getTopHighestEarningNames(5);
+        OptionalInt highest = employeeService.getHighestSalary();
+        mockServer.verify();
+        assertEquals(3, employees.size());
+        assertEquals("Odilia Tillman", top5.get(0));
+        assertEquals(OptionalInt.of(477611), highest);
+    }
+
     @DisplayName("Test Employees Get When 1 is found")
     @Test
     void testGetEmployeesById_whenEmployeesIsFound() {
@@ -181,6 +268,158 @@ public class EmployeeServiceTest {
         });
     }
 
+    @DisplayName("Test Employees Get fails instead of answering not found when the server rejects the request")
+    @Test
+    void testGetEmployeesById_throwsExceptionWhenServerRejectsTheRequest() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9d"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        Assertions.assertThrowsExactly(UnableToObtainEmployeesException.class, () -> {
+            employeeService.getEmployeeById("de567c35-3067-411b-957f-60f0f487cf9d");
+        });
+        mockServer.verify();
+    }
+
+    @DisplayName("Test Employees Get by ids fans out one lookup per id")
+    @Test
+    void testGetEmployeesByIds_skipsUnknownIds() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder)
+                .ignoreExpectOrder(true)
+                .build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"))
+                .andRespond(withSuccess(oneEmployee, MediaType.APPLICATION_JSON));
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9c"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        List<Employee> employees = employeeService.getEmployeesByIds(List.of(
+                "de567c35-3067-411b-957f-60f0f487cf9c",
+                "de567c35-3067-411b-957f-60f0f487cf9b",
+                "de567c35-3067-411b-957f-60f0f487cf9c"));
+        mockServer.verify();
+        assertEquals(1, employees.size());
+        assertEquals(
+                UUID.fromString("de567c35-3067-411b-957f-60f0f487cf9b"),
+                employees.get(0).id());
+    }
+
+    @DisplayName("Test Employees Get by ids fails when the server fails")
+    @Test
+    void testGetEmployeesByIds_throwsExceptionWhenServerFails() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"))
+                .andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        Assertions.assertThrowsExactly(UpstreamUnavailableException.class, () -> {
+            employeeService.getEmployeesByIds(List.of("de567c35-3067-411b-957f-60f0f487cf9b"));
+        });
+    }
+
+    @DisplayName("Test Employees Get by ids fails when the server rejects a lookup")
+    @Test
+    void testGetEmployeesByIds_throwsExceptionWhenServerRejectsALookup() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9e"))
+                .andRespond(withStatus(HttpStatus.FORBIDDEN));
+
+        Assertions.assertThrowsExactly(UnableToObtainEmployeesException.class, () -> {
+            employeeService.getEmployeesByIds(List.of("de567c35-3067-411b-957f-60f0f487cf9e"));
+        });
+    }
+
+    @DisplayName("Test Employee Get gives up once the request deadline passes")
+    @Test
+    void testGetEmployeesById_throwsExceptionWhenDeadlinePasses() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.GET))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"))
+                .andRespond(request -> {
+                    try {
+                        Thread.sleep(500);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return withSuccess(oneEmployee, MediaType.APPLICATION_JSON).createResponse(request);
+                });
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(RequestDeadline.ATTRIBUTE, RequestDeadline.after(Duration.ofMillis(50)));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            Assertions.assertThrowsExactly(UpstreamTimeoutException.class, () -> {
+                employeeService.getEmployeeById("de567c35-3067-411b-957f-60f0f487cf9b");
+            });
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @DisplayName("Test Create Employee repeated with the same Idempotency-Key creates the Employee once")
+    @Test
+    void testCreateEmployee_withIdempotencyKeyCreatesOnce() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(ExpectedCount.once(), requestTo("http://localhost:8112/api/v1/employee"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess(oneEmployee, MediaType.APPLICATION_JSON));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdempotencyKey.HEADER, UUID.randomUUID().toString());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Employee input = new Employee(null, "Dr. Homer Conn", 422300, 55, "Central Associate", null);
+
+        try {
+            Employee created = employeeService.createEmployee(input);
+            Employee retried = employeeService.createEmployee(input);
+
+            // Assert
+            mockServer.verify();
+            assertEquals(created, retried);
+            Assertions.assertThrowsExactly(IdempotencyKeyReusedException.class, () -> {
+                employeeService.createEmployee(new Employee(null, "Jane Doe", 115000, 35, "MD", null));
+            });
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @DisplayName("Test Create Employee with an Idempotency-Key that is too long is rejected")
+    @Test
+    void testCreateEmployee_withTooLongIdempotencyKey() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdempotencyKey.HEADER, "k".repeat(IdempotencyKey.MAX_LENGTH + 1));
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        try {
+            // Assert
+            Assertions.assertThrowsExactly(InvalidIdempotencyKeyException.class, () -> {
+                employeeService.createEmployee(
+                        new Employee(null, "Dr. Homer Conn", 422300, 55, "Central Associate", null));
+            });
+            mockServer.verify();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     @DisplayName("Test Get Highest Salary For Employees")
     @Test
     void testGetHighestSalary_whenHighestSalaryIsPresent() {
@@ -188,8 +427,10 @@ public class EmployeeServiceTest {
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
                 .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/highestSalary"))
+                .andRespond(withSuccess(
+                        "{\"data\":477611,\"status\":\"Successfully processed request.\"}",
+                        MediaType.APPLICATION_JSON));
 
         OptionalInt highest = employeeService.getHighestSalary();
         mockServer.verify();
@@ -203,8 +444,8 @@ public class EmployeeServiceTest {
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
                 .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/top?limit=5"))
+                .andRespond(withSuccess(topFiveResource, MediaType.APPLICATION_JSON));
 
         List<String> top5 = employeeService.getTopHighestEarningNames(5);
         mockServer.verify();
@@ -218,25 +459,14 @@ public class EmployeeServiceTest {
                 top5);
     }
 
-    @DisplayName("Test Delete When a single Employee is Found with the name associated with the UUID")
+    @DisplayName("Test Delete When the Employee is Found and Deleted by id")
     @Test
     void testAttemptToDeleteEmployeeWithId_whenOneIsFoundAndDeleted() {
         // Set
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
-        mockServer
-                .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"))
-                .andRespond(withSuccess(oneEmployee, MediaType.APPLICATION_JSON));
-
-        mockServer
-                .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource, MediaType.APPLICATION_JSON));
-
         mockServer
                 .expect(method(HttpMethod.DELETE))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andExpect(content().json("{\"name\": \"Dr. Homer Conn\"}"))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"))
                 .andRespond(withSuccess(
                         "{\"data\": \"true\", \"status\":\"Successfully processed request.\"}",
                         MediaType.APPLICATION_JSON));
@@ -246,24 +476,37 @@ public class EmployeeServiceTest {
         assertNull(result);
     }
 
-    @DisplayName("Test Delete When multiple Employees Found with the same name As Employee being deleted with the UUID")
+    @DisplayName("Test Delete When multiple Employees have the same name As Employee being deleted with the UUID")
     @Test
     void testAttemptToDeleteEmployeeWithId_whenThereAreMultipleEmployeesWithSameNameAsOneBeingDeleted() {
         // Set
         mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
         mockServer
-                .expect(method(HttpMethod.GET))
+                .expect(method(HttpMethod.DELETE))
                 .andExpect(requestTo("http://localhost:8112/api/v1/employee/90f31ba6-e718-435d-9cd2-9ef51e627b4b"))
-                .andRespond(withSuccess(oneEmployeeWithDuplicatedName, MediaType.APPLICATION_JSON));
-
-        mockServer
-                .expect(method(HttpMethod.GET))
-                .andExpect(requestTo("http://localhost:8112/api/v1/employee"))
-                .andRespond(withSuccess(resource_with_two_same_names, MediaType.APPLICATION_JSON));
+                .andRespond(withSuccess(
+                        "{\"data\": \"true\", \"status\":\"Successfully processed request.\"}",
+                        MediaType.APPLICATION_JSON));
 
         String result = employeeService.attemptToDeleteEmployeeWithId("90f31ba6-e718-435d-9cd2-9ef51e627b4b");
         mockServer.verify();
-        assertEquals(
-                "API currently does not support delete for this employee. Please reach out to App Support.", result);
+        assertNull(result);
+    }
+
+    @DisplayName("Test Delete When no Employee exists with the UUID")
+    @Test
+    void testAttemptToDeleteEmployeeWithId_throwsExceptionWhenEmployeeIsNotFound() {
+        // Set
+        mockServer = MockRestServiceServer.bindTo(restClientBuilder).build();
+        mockServer
+                .expect(method(HttpMethod.DELETE))
+                .andExpect(requestTo("http://localhost:8112/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9c"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"data\": false, \"status\":\"Successfully processed request.\"}"));
+
+        Assertions.assertThrowsExactly(EmployeeNotFoundException.class, () -> {
+            employeeService.attemptToDeleteEmployeeWithId("de567c35-3067-411b-957f-60f0f487cf9c");
+        });
     }
 }
@@ -0,0 +1,106 @@
+package com.reliaquest.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.dto.EmployeeFilter;
+import com.reliaquest.api.exceptions.UnableToObtainEmployeesException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+
+public class EmployeeSnapshotDecoderTest {
+
+    @DisplayName("Test Decode builds the same snapshot and indexes as mapping the parsed Employees")
+    @Test
+    void testDecode_matchesMappedEmployees() throws IOException {
+        // Set
+        byte[] body = readResource("employees_test.json");
+        Response<List<RepositoryEmployee>> response = new ObjectMapper().readValue(body, new TypeReference<>() {});
+        EmployeeSnapshot mapped = EmployeeMapper.mapToSnapshot(response.data());
+        EmployeeFilter filter = new EmployeeFilter(100000, null, null, 60, null, null, null);
+
+        // When
+        EmployeeSnapshot decoded = EmployeeSnapshotDecoder.decode(List.of(body));
+
+        // Assert
+        assertEquals(mapped.asEmployeeList(), decoded.asEmployeeList());
+        EmployeeIndexes indexes = decoded.derived(EmployeeIndexes.class, snapshot -> null);
+        assertArrayEquals(EmployeeIndexes.build(mapped).filter(filter), indexes.filter(filter));
+    }
+
+    @DisplayName("Test Decode appends the Employees of every shard and reads ids in any case")
+    @Test
+    void testDecode_appendsShards() {
+        // Set
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        byte[] shard0 = ("{\"data\":[{\"id\":\"" + first.toString().toUpperCase()
+                        + "\",\"employee_name\":\"Zoë Ångström\",\"employee_salary\":null,\"employee_age\":30}],"
+                        + "\"status\":\"Successfully processed request.\"}")
+                .getBytes(UTF_8);
+        byte[] shard1 =
+                ("{\"status\":\"Successfully processed request.\",\"data\":[{\"employee_email\":\"jd@company.com\","
+                                + "\"id\":\"" + second + "\",\"employee_salary\":5000,\"employee_title\":\"MD\"}]}")
+                        .getBytes(UTF_8);
+
+        // When
+        EmployeeSnapshot snapshot = EmployeeSnapshotDecoder.decode(List.of(shard0, shard1));
+
+        // Assert
+        assertEquals(
+                List.of(
+                        new Employee(first, "Zoë Ångström", null, 30, null, null),
+                        new Employee(second, null, 5000, null, "MD", "jd@company.com")),
+                snapshot.asEmployeeList());
+        assertNull(snapshot.title(0));
+    }
+
+    @DisplayName("Test Decode fails when a shard reports an error or answers something else")
+    @Test
+    void testDecode_failsOnErrorsAndMalformedAnswers() {
+        // Set
+        byte[] ok = "{\"data\":[],\"status\":\"Successfully processed request.\"}".getBytes(UTF_8);
+        byte[] error = "{\"status\":\"Failed to process request.\",\"error\":\"Boom\"}".getBytes(UTF_8);
+        byte[] malformed = "{\"data\":{\"id\":\"x\"}}".getBytes(UTF_8);
+
+        // Assert
+        assertThrows(UnableToObtainEmployeesException.class, () -> EmployeeSnapshotDecoder.decode(List.of(ok, error)));
+        assertThrows(RestClientException.class, () -> EmployeeSnapshotDecoder.decode(List.of(malformed)));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> EmployeeSnapshotDecoder.decode(List.of("{\"data\":[{\"id\":\"not-a-uuid\"}]}".getBytes(UTF_8))));
+    }
+
+    @DisplayName("Test Decode fails on a list holding something else than Employees instead of stopping there")
+    @Test
+    void testDecode_failsOnNonEmployeeElements() {
+        // Set
+        String employee = "{\"id\":\"" + UUID.randomUUID() + "\"}";
+        byte[] number = ("{\"data\":[" + employee + ",1," + employee + "]}").getBytes(UTF_8);
+        byte[] list = ("{\"data\":[" + employee + ",[]]}").getBytes(UTF_8);
+        byte[] truncated = ("{\"data\":[" + employee + ",").getBytes(UTF_8);
+
+        // Assert
+        assertThrows(RestClientException.class, () -> EmployeeSnapshotDecoder.decode(List.of(number)));
+        assertThrows(RestClientException.class, () -> EmployeeSnapshotDecoder.decode(List.of(list)));
+        assertThrows(RestClientException.class, () -> EmployeeSnapshotDecoder.decode(List.of(truncated)));
+    }
+
+    private static byte[] readResource(String resource) throws IOException {
+        try (InputStream inputStream =
+                EmployeeSnapshotDecoderTest.class.getClassLoader().getResourceAsStream(resource)) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.api.dto.Employee;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the heap actually used by a snapshot against a list of Employee records, so it depends on the garbage
+ * collector of the JVM running it and is left out of the unit tests; run it with {@code ./gradlew :api:benchmark}.
+ */
+@Tag("benchmark")
+public class EmployeeSnapshotFootprintBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSnapshotFootprintBenchmark.class);
+
+    @DisplayName("Benchmark Snapshot heap footprint against a list of Employee records")
+    @Test
+    void benchmarkSnapshot_usesLessHeapThanEmployeeRecords() {
+        // Set
+        int count = 200_000;
+        Random random = new Random(42);
+        String[] titles = new String[300];
+        for (int i = 0; i < titles.length; i++) {
+            titles[i] = "Senior Title Number " + i;
+        }
+
+        // When
+        long baseline = usedHeap();
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee(
+                    UUID.randomUUID(),
+                    "First" + random.nextInt(5000) + " Last" + random.nextInt(20000),
+                    random.nextInt(30000, 500000),
+                    random.nextInt(16, 70),
+                    new String(titles[random.nextInt(titles.length)]),
+                    "user" + i + "@company.com"));
+        }
+        long recordBytes = usedHeap() - baseline;
+
+        EmployeeSnapshot snapshot = toSnapshot(employees);
+        long snapshotBytes = usedHeap() - recordBytes - baseline;
+
+        // Assert
+        log.info(
+                "Bytes per Employee: records {}, snapshot {} (estimated {})",
+                recordBytes / count,
+                snapshotBytes / count,
+                snapshot.footprintBytes() / count);
+        assertEquals(count, snapshot.size());
+        assertTrue(snapshot.footprintBytes() * 2 < recordBytes);
+    }
+
+    private static EmployeeSnapshot toSnapshot(List<Employee> employees) {
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(employees.size());
+        employees.forEach(e -> builder.add(e.id(), e.name(), e.salary(), e.age(), e.title(), e.email()));
+        return builder.build();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
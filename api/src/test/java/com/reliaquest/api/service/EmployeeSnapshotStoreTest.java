@@ -0,0 +1,68 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EmployeeSnapshotStoreTest {
+    @TempDir
+    private Path directory;
+
+    @DisplayName("Test Load returns the Employees saved last")
+    @Test
+    void testSaveThenLoad() {
+        // Given
+        EmployeeSnapshot snapshot = EmployeeSnapshot.builder(3)
+                .add(UUID.randomUUID(), "Zoë Ångström", 100, 30, "Engineer", "zoe@company.com")
+                .add(UUID.randomUUID(), null, null, null, null, null)
+                .add(UUID.randomUUID(), "Jane Doe", 200, 45, "Engineer", "jane@company.com")
+                .build();
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore(
+                directory.resolve("snapshots/employees.bin").toString(), Runnable::run);
+
+        // When
+        store.save(snapshot);
+        EmployeeSnapshot loaded = store.load().orElseThrow();
+
+        // Assert
+        assertEquals(snapshot.asEmployeeList(), loaded.asEmployeeList());
+        assertEquals(snapshot.loadedAt(), loaded.loadedAt());
+        assertEquals(200, loaded.maxSalary());
+        assertEquals(1, loaded.titleCount());
+        assertNotEquals(snapshot.version(), loaded.version());
+    }
+
+    @DisplayName("Test Load ignores a missing or unreadable file")
+    @Test
+    void testLoad_ignoresMissingOrUnreadableFile() throws IOException {
+        // Given
+        Path path = directory.resolve("employees.bin");
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore(path.toString(), Runnable::run);
+
+        // Assert
+        assertTrue(store.load().isEmpty());
+        Files.write(path, new byte[] {1, 2, 3});
+        assertTrue(store.load().isEmpty());
+    }
+
+    @DisplayName("Test Save does nothing when no path is configured")
+    @Test
+    void testSave_disabledWithoutPath() {
+        // Given
+        EmployeeSnapshotStore store = new EmployeeSnapshotStore("", Runnable::run);
+
+        // When
+        store.save(EmployeeSnapshot.empty());
+
+        // Assert
+        assertTrue(store.load().isEmpty());
+    }
+}
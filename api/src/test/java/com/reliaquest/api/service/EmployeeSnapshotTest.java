@@ -0,0 +1,83 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.dto.Employee;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class EmployeeSnapshotTest {
+    @DisplayName("Test Snapshot materializes the same Employees it was built from")
+    @Test
+    void testSnapshot_roundTripsAllEmployees() throws IOException {
+        // Set
+        List<RepositoryEmployee> repositoryEmployees = readEmployees("employees_test.json");
+
+        // When
+        EmployeeSnapshot snapshot = EmployeeMapper.mapToSnapshot(repositoryEmployees);
+
+        // Assert
+        assertEquals(
+                repositoryEmployees.stream().map(EmployeeMapper::mapToEmployee).toList(), snapshot.asEmployeeList());
+    }
+
+    @DisplayName("Test Snapshot keeps missing values and non ASCII names")
+    @Test
+    void testSnapshot_keepsNullsAndUnicode() {
+        // Set
+        UUID id = UUID.randomUUID();
+
+        // When
+        EmployeeSnapshot snapshot = EmployeeSnapshot.builder(1)
+                .add(id, "Zoë Ångström", null, 30, null, null)
+                .build();
+
+        // Assert
+        Employee employee = snapshot.employee(0);
+        assertEquals(id, employee.id());
+        assertEquals("Zoë Ångström", employee.name());
+        assertNull(employee.salary());
+        assertEquals(30, employee.age());
+        assertNull(employee.title());
+        assertNull(employee.email());
+        assertEquals(1, snapshot.rowsWithNameContaining("ë Å").length);
+    }
+
+    @DisplayName("Test Footprint Bytes adds up the arrays of every column")
+    @Test
+    void testFootprintBytes_addsUpTheColumns() {
+        // Set
+        EmployeeSnapshot snapshot = EmployeeSnapshot.builder(3)
+                .add(UUID.randomUUID(), "Jane Doe", 200, 45, "Engineer", "jane@company.com")
+                .add(UUID.randomUUID(), "Zoë", 100, 30, "Engineer", null)
+                .add(UUID.randomUUID(), "John Roe", 300, 50, "Manager", "john@company.com")
+                .build();
+
+        // When
+        long footprintBytes = snapshot.footprintBytes();
+
+        // Assert
+        long ids = 2 * (16 + 24);
+        long salariesAgesAndTitleCodes = 3 * (16 + 16);
+        long titleDictionary = (16 + 8) + (24 + 16 + 8) + (24 + 16 + 8);
+        long names = (16 + 24) + (16 + 16);
+        long emails = (16 + 32) + (16 + 16) + 8;
+        assertEquals(ids + salariesAgesAndTitleCodes + titleDictionary + names + emails, footprintBytes);
+    }
+
+    private static List<RepositoryEmployee> readEmployees(String resource) throws IOException {
+        try (InputStream inputStream =
+                EmployeeSnapshotTest.class.getClassLoader().getResourceAsStream(resource)) {
+            Response<List<RepositoryEmployee>> response =
+                    new ObjectMapper().readValue(inputStream, new TypeReference<>() {});
+            return response.data();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.client.RestClient;
+
+public class EmployeeWarmUpTest {
+    private final EmployeeSnapshot snapshot = EmployeeSnapshot.builder(1)
+            .add(UUID.randomUUID(), "Jane Doe", 200, 45, "Engineer", "jane@company.com")
+            .build();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Test Run keeps the API out of service after a failed warm-up and reports it up once a retry succeeds")
+    @Test
+    void testRun_retriesAFailedWarmUp() throws InterruptedException {
+        // Set
+        EmployeeWarmUp employeeWarmUp = employeeWarmUp(2);
+
+        // When
+        employeeWarmUp.run(new DefaultApplicationArguments());
+
+        // Assert
+        assertEquals(Status.OUT_OF_SERVICE, employeeWarmUp.health().getStatus());
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (employeeWarmUp.health().getStatus() != Status.UP && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(Status.UP, employeeWarmUp.health().getStatus());
+        assertEquals(3, loads.get());
+    }
+
+    private EmployeeWarmUp employeeWarmUp(int failures) {
+        EmployeeCacheService employeeCacheService =
+                new EmployeeCacheService(
+                        null,
+                        new ConcurrentMapCacheManager("employees"),
+                        new EmployeeSnapshotStore("", Runnable::run) {
+                            @Override
+                            Optional<EmployeeSnapshot> load() {
+                                return Optional.empty();
+                            }
+                        },
+                        Runnable::run,
+                        Duration.ofMinutes(5)) {
+                    @Override
+                    public EmployeeSnapshot getSnapshot() {
+                        if (loads.incrementAndGet() <= failures) {
+                            throw new IllegalStateException("Mock Employee Server is rate limiting.");
+                        }
+                        return snapshot;
+                    }
+                };
+        return new EmployeeWarmUp(
+                employeeCacheService,
+                new StandardEnvironment(),
+                RestClient.builder(),
+                executor,
+                true,
+                true,
+                1,
+                List.of(),
+                Duration.ofMillis(10));
+    }
+}
@@ -0,0 +1,76 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FlightEventsTest {
+
+    @DisplayName("Test Flight Events record the snapshot load, the index builds and the searches")
+    @Test
+    void testFlightEvents_recordTheHotPaths() throws IOException {
+        // Set
+        byte[] body;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("employees_test.json")) {
+            body = in.readAllBytes();
+        }
+        SearchResultCache cache = new SearchResultCache(1_000);
+        Path file = Files.createTempFile("flight-events", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.reliaquest.api.SnapshotLoad");
+            recording.enable("com.reliaquest.api.IndexBuild");
+            recording.enable("com.reliaquest.api.Search");
+            recording.start();
+            EmployeeSnapshot snapshot = EmployeeSnapshotDecoder.decode(List.of(body));
+            snapshot.derived(EmployeeIdFilter.class, EmployeeIdFilter::build);
+            cache.rowsWithNameContaining(snapshot, "Dr");
+            cache.rowsWithNameContaining(snapshot, "Dr");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        RecordedEvent load = only(events, "com.reliaquest.api.SnapshotLoad");
+        assertEquals("upstream", load.getString("source"));
+        assertEquals(50, load.getInt("rows"));
+        assertEquals(body.length, load.getLong("bytes"));
+        assertEquals(
+                List.of("EmployeeIndexes", "EmployeeIdFilter"),
+                named(events, "com.reliaquest.api.IndexBuild").stream()
+                        .map(build -> build.getString("index"))
+                        .toList());
+        List<RecordedEvent> searches = named(events, "com.reliaquest.api.Search");
+        assertEquals(2, searches.size());
+        assertEquals(
+                List.of(false, true),
+                searches.stream().map(search -> search.getBoolean("cached")).toList());
+        assertEquals(2, searches.get(0).getInt("fragmentLength"));
+        assertEquals(searches.get(0).getInt("hits"), searches.get(1).getInt("hits"));
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> named = named(events, name);
+        assertEquals(1, named.size());
+        return named.get(0);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((first, second) -> first.getStartTime().compareTo(second.getStartTime()))
+                .toList();
+    }
+}
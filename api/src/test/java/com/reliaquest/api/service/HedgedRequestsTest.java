@@ -0,0 +1,152 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class HedgedRequestsTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @DisplayName("Test Send hedges a read once it takes longer than the 95th percentile of the recent reads")
+    @Test
+    void testSend_hedgesAfterThe95thPercentile() throws Exception {
+        // Set
+        HedgedRequests hedgedRequests = new HedgedRequests(executor, true, Duration.ofMillis(1), 1);
+        for (int i = 0; i < 20; i++) {
+            hedgedRequests.send("read", () -> sleep(100), TIMEOUT).get();
+        }
+        CountDownLatch primaryAnswers = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicLong hedgedAfterNanos = new AtomicLong();
+        long started = System.nanoTime();
+
+        // When
+        CompletableFuture<String> answer = hedgedRequests.send(
+                "read",
+                () -> {
+                    if (attempts.getAndIncrement() == 0) {
+                        await(primaryAnswers);
+                        return "primary";
+                    }
+                    hedgedAfterNanos.set(System.nanoTime() - started);
+                    return "hedge";
+                },
+                TIMEOUT);
+
+        // Assert
+        assertEquals("hedge", answer.get(1, TimeUnit.SECONDS));
+        primaryAnswers.countDown();
+        assertEquals(2, attempts.get());
+        assertTrue(hedgedAfterNanos.get() >= Duration.ofMillis(100).toNanos(), hedgedAfterNanos + " ns");
+    }
+
+    @DisplayName("Test Send answers with the first answer and sends no hedge for a fast read")
+    @Test
+    void testSend_firstAnswerWins() throws Exception {
+        // Set
+        HedgedRequests hedgedRequests = new HedgedRequests(executor, true, Duration.ofMillis(50), 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String answer = hedgedRequests
+                .send("read", () -> "answer " + attempts.incrementAndGet(), TIMEOUT)
+                .get(1, TimeUnit.SECONDS);
+        Thread.sleep(150);
+
+        // Assert
+        assertEquals("answer 1", answer);
+        assertEquals(1, attempts.get());
+    }
+
+    @DisplayName("Test Send hedges no more than its share of the reads")
+    @Test
+    void testSend_respectsTheBudget() throws Exception {
+        // Set
+        HedgedRequests hedgedRequests = new HedgedRequests(executor, true, Duration.ofMillis(20), 0.25);
+        CountDownLatch answers = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+        List<CompletableFuture<String>> reads = new ArrayList<>();
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            reads.add(hedgedRequests.send(
+                    "read",
+                    () -> {
+                        attempts.incrementAndGet();
+                        await(answers);
+                        return "answer";
+                    },
+                    TIMEOUT));
+        }
+        Thread.sleep(200);
+        answers.countDown();
+        for (CompletableFuture<String> read : reads) {
+            read.get(1, TimeUnit.SECONDS);
+        }
+
+        // Assert
+        assertEquals(8 + 2, attempts.get());
+    }
+
+    @DisplayName("Test Send does not hedge a read which already failed")
+    @Test
+    void testSend_doesNotHedgeAFailedRead() throws Exception {
+        // Set
+        HedgedRequests hedgedRequests = new HedgedRequests(executor, true, Duration.ofMillis(20), 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        CompletableFuture<String> answer = hedgedRequests.send(
+                "read",
+                () -> {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("failed");
+                },
+                TIMEOUT);
+        Thread.sleep(150);
+
+        // Assert
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> answer.get(1, TimeUnit.SECONDS));
+        assertEquals(IllegalStateException.class, failure.getCause().getClass());
+        assertEquals(1, attempts.get());
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "answer";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.api.dto.Employee;
+import com.reliaquest.api.exceptions.IdempotencyKeyInDoubtException;
+import com.reliaquest.api.exceptions.UpstreamTimeoutException;
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class IdempotentCreatesTest {
+    private static final String CLIENT = "127.0.0.1";
+    private static final EmployeeCreate INPUT = new EmployeeCreate("Jane Doe", 115000, 35, "MD");
+
+    private final AtomicInteger creates = new AtomicInteger();
+    private final Supplier<Employee> create = () -> new Employee(
+            UUID.randomUUID(), "Jane Doe", 115000, 35, "MD", "jane" + creates.incrementAndGet() + "@company.com");
+
+    @DisplayName("Test Create forgets a key once its time to live has passed")
+    @Test
+    void testCreate_expiresKeys() {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ZERO, 10);
+
+        // When
+        idempotentCreates.create(new IdempotencyKey(CLIENT, "key"), INPUT, create);
+        idempotentCreates.create(new IdempotencyKey(CLIENT, "key"), INPUT, create);
+
+        // Assert
+        assertEquals(2, creates.get());
+    }
+
+    @DisplayName("Test Create keeps at most the configured number of keys, forgetting the oldest")
+    @Test
+    void testCreate_boundsTheNumberOfKeys() {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ofHours(1), 2);
+
+        // When
+        Employee first = idempotentCreates.create(new IdempotencyKey(CLIENT, "first"), INPUT, create);
+        idempotentCreates.create(new IdempotencyKey(CLIENT, "second"), INPUT, create);
+        Employee third = idempotentCreates.create(new IdempotencyKey(CLIENT, "third"), INPUT, create);
+        Employee firstAgain = idempotentCreates.create(new IdempotencyKey(CLIENT, "first"), INPUT, create);
+
+        // Assert
+        assertEquals(2, idempotentCreates.size());
+        assertEquals(third, idempotentCreates.create(new IdempotencyKey(CLIENT, "third"), INPUT, create));
+        assertEquals(4, creates.get());
+        assertNotEquals(first, firstAgain);
+    }
+
+    @DisplayName("Test Create keeps the key of a running create when forgetting the oldest keys")
+    @Test
+    void testCreate_keepsRunningCreates() throws Exception {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ofHours(1), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // When
+            Future<Employee> running =
+                    executor.submit(() -> idempotentCreates.create(new IdempotencyKey(CLIENT, "running"), INPUT, () -> {
+                        started.countDown();
+                        await(finish);
+                        return create.get();
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+            idempotentCreates.create(new IdempotencyKey(CLIENT, "second"), INPUT, create);
+            idempotentCreates.create(new IdempotencyKey(CLIENT, "third"), INPUT, create);
+            finish.countDown();
+            Employee retried = idempotentCreates.create(new IdempotencyKey(CLIENT, "running"), INPUT, create);
+
+            // Assert
+            assertEquals(running.get(5, TimeUnit.SECONDS), retried);
+            assertEquals(3, creates.get());
+            assertEquals(2, idempotentCreates.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @DisplayName("Test Create forgets a key whose create was rejected, so it can be retried")
+    @Test
+    void testCreate_forgetsRejectedCreates() {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ofHours(1), 10);
+        IdempotencyKey key = new IdempotencyKey(CLIENT, "key");
+
+        // When
+        assertThrows(
+                UpstreamUnavailableException.class,
+                () -> idempotentCreates.create(key, INPUT, () -> {
+                    throw new UpstreamUnavailableException(
+                            "Too many calls are waiting for the Mock Employee Server.", Duration.ofSeconds(1));
+                }));
+        idempotentCreates.create(key, INPUT, create);
+
+        // Assert
+        assertEquals(1, creates.get());
+    }
+
+    @DisplayName("Test Create keeps a key whose create timed out in doubt, so it is not created twice")
+    @Test
+    void testCreate_keepsTimedOutCreatesInDoubt() {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ofHours(1), 10);
+        IdempotencyKey key = new IdempotencyKey(CLIENT, "key");
+
+        // When
+        assertThrows(
+                UpstreamTimeoutException.class,
+                () -> idempotentCreates.create(key, INPUT, () -> {
+                    throw new UpstreamTimeoutException("Mock Employee Server did not answer within 2000 ms.");
+                }));
+
+        // Assert
+        assertThrows(IdempotencyKeyInDoubtException.class, () -> idempotentCreates.create(key, INPUT, create));
+        assertEquals(0, creates.get());
+    }
+
+    @DisplayName("Test Create keeps the keys of different clients apart")
+    @Test
+    void testCreate_scopesKeysByClient() {
+        // Given
+        IdempotentCreates idempotentCreates = new IdempotentCreates(Duration.ofHours(1), 10);
+        EmployeeCreate otherInput = new EmployeeCreate("John Doe", 90000, 40, "Engineer");
+
+        // When
+        Employee first = idempotentCreates.create(new IdempotencyKey(CLIENT, "key"), INPUT, create);
+        Employee other = idempotentCreates.create(new IdempotencyKey("10.0.0.2", "key"), otherInput, create);
+
+        // Assert
+        assertNotEquals(first, other);
+        assertEquals(2, creates.get());
+        assertEquals(first, idempotentCreates.create(new IdempotencyKey(CLIENT, "key"), INPUT, create));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class NameFuzzyIndexTest {
+    private EmployeeSnapshot snapshot;
+    private NameFuzzyIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream inputStream =
+                NameFuzzyIndexTest.class.getClassLoader().getResourceAsStream("employees_test.json")) {
+            Response<List<RepositoryEmployee>> response =
+                    new ObjectMapper().readValue(inputStream, new TypeReference<>() {});
+            snapshot = EmployeeMapper.mapToSnapshot(response.data());
+        }
+        index = NameFuzzyIndex.build(snapshot);
+    }
+
+    @DisplayName("Test Fuzzy Search ranks closer names first, then by name")
+    @Test
+    void testSearch_ranksByDistanceThenName() {
+        assertEquals(List.of("Leisa Terry", "Tanner Terry", "Tory Barton"), search("Tery", 10, null));
+        assertEquals(List.of("Leisa Terry", "Tanner Terry"), search("Tery", 2, null));
+        assertEquals(List.of("Leisa Terry", "Tanner Terry", "Tory Barton"), search("Tery", Integer.MAX_VALUE, null));
+    }
+
+    @DisplayName("Test Fuzzy Search tolerates typos in every word, in any order")
+    @Test
+    void testSearch_toleratesTyposInEveryWord() {
+        assertEquals(List.of("Dr. Bernetta Greenfelder"), search("Bernneta", 10, null));
+        assertEquals(List.of("Miss Halley Hermiston"), search("Hermistn Halley", 10, null));
+    }
+
+    @DisplayName("Test Fuzzy Search ignores case and punctuation")
+    @Test
+    void testSearch_ignoresCaseAndPunctuation() {
+        assertEquals(List.of("Keila O'Hara Jr.", "Mandy O'Hara"), search("O'HARA", 10, null));
+        assertEquals(List.of("Keila O'Hara Jr.", "Mandy O'Hara"), search("ohara", 10, null));
+    }
+
+    @DisplayName("Test Fuzzy Search with no distance allowed only matches whole words")
+    @Test
+    void testSearch_withZeroDistance() {
+        assertEquals(List.of(), search("Bernneta", 10, 0));
+        assertEquals(List.of("Jane Doe"), search("jane doe", 10, 0));
+    }
+
+    @DisplayName("Test Fuzzy Search ignores accents")
+    @Test
+    void testSearch_ignoresAccents() {
+        // Given
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(2);
+        builder.add(UUID.randomUUID(), "Zoë Ångström", 100, 30, "Engineer", "zoe@company.com");
+        builder.add(UUID.randomUUID(), "Zack Angstrom", 100, 30, "Engineer", "zack@company.com");
+        EmployeeSnapshot accented = builder.build();
+
+        // When
+        int[] rows = NameFuzzyIndex.build(accented).search("zoe angstrom", 10, null);
+
+        // Assert
+        assertEquals(
+                List.of("Zoë Ångström"),
+                Arrays.stream(rows).mapToObj(accented::name).toList());
+    }
+
+    @DisplayName("Test Fuzzy Search finds the rows of a rare word among those of a common one, in either order")
+    @Test
+    void testSearch_intersectsARareWordWithACommonOne() {
+        // Given
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(201);
+        for (int i = 0; i < 200; i++) {
+            builder.add(UUID.randomUUID(), "Smith " + i, 100, 30, "Engineer", "smith" + i + "@company.com");
+        }
+        builder.add(UUID.randomUUID(), "Xavier Smith", 100, 30, "Engineer", "xavier@company.com");
+        EmployeeSnapshot smiths = builder.build();
+        NameFuzzyIndex smithsIndex = NameFuzzyIndex.build(smiths);
+
+        // Assert
+        for (String query : List.of("smith xavier", "xavier smith", "smyth xaviar")) {
+            assertEquals(
+                    List.of("Xavier Smith"),
+                    Arrays.stream(smithsIndex.search(query, 10, null))
+                            .mapToObj(smiths::name)
+                            .toList());
+        }
+    }
+
+    private List<String> search(String query, int limit, Integer maxDistance) {
+        return Arrays.stream(index.search(query, limit, maxDistance))
+                .mapToObj(snapshot::name)
+                .toList();
+    }
+}
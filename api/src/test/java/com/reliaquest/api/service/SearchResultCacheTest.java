@@ -0,0 +1,143 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SearchResultCacheTest {
+
+    @DisplayName("Test Rows With Name Containing searches a snapshot once per fragment")
+    @Test
+    void testRowsWithNameContaining_hitsTheCachedRows() {
+        // Set
+        SearchResultCache cache = new SearchResultCache(1_000);
+        EmployeeSnapshot snapshot = snapshot(100);
+
+        // When
+        int[] first = cache.rowsWithNameContaining(snapshot, "Employee 1");
+        int[] second = cache.rowsWithNameContaining(snapshot, "Employee 1");
+
+        // Assert
+        assertArrayEquals(snapshot.rowsWithNameContaining("Employee 1"), first);
+        assertSame(first, second);
+        assertEquals(0.5, cache.hitRatio());
+        assertEquals(1 + first.length, cache.weight());
+    }
+
+    @DisplayName("Test Rows With Name Containing searches again a newer snapshot")
+    @Test
+    void testRowsWithNameContaining_dropsTheRowsOfOlderSnapshots() {
+        // Set
+        SearchResultCache cache = new SearchResultCache(1_000);
+        EmployeeSnapshot older = snapshot(10);
+        EmployeeSnapshot newer = snapshot(20);
+        int[] olderRows = cache.rowsWithNameContaining(older, "Employee 1");
+
+        // When
+        int[] newerRows = cache.rowsWithNameContaining(newer, "Employee 1");
+
+        // Assert
+        assertNotSame(olderRows, newerRows);
+        assertArrayEquals(newer.rowsWithNameContaining("Employee 1"), newerRows);
+        assertArrayEquals(
+                older.rowsWithNameContaining("Employee 1"), cache.rowsWithNameContaining(older, "Employee 1"));
+        assertSame(newerRows, cache.rowsWithNameContaining(newer, "Employee 1"));
+    }
+
+    @DisplayName("Test Rows With Name Containing keeps the frequent fragments through a flood of one-off ones")
+    @Test
+    void testRowsWithNameContaining_keepsHotFragmentsWithinTheWeight() {
+        // Set
+        SearchResultCache cache = new SearchResultCache(1_000);
+        EmployeeSnapshot snapshot = snapshot(1_000);
+        String[] hot = {"Employee 1", "Employee 2", "Employee 3"};
+        for (int i = 0; i < 5; i++) {
+            for (String fragment : hot) {
+                cache.rowsWithNameContaining(snapshot, fragment);
+            }
+        }
+        int[][] hotRows = new int[hot.length][];
+        for (int i = 0; i < hot.length; i++) {
+            hotRows[i] = cache.rowsWithNameContaining(snapshot, hot[i]);
+        }
+
+        // When
+        for (int i = 0; i < 1_000; i++) {
+            cache.rowsWithNameContaining(snapshot, "Employee " + i + "0");
+            assertTrue(cache.weight() <= 1_000);
+        }
+
+        // Assert
+        for (int i = 0; i < hot.length; i++) {
+            assertSame(hotRows[i], cache.rowsWithNameContaining(snapshot, hot[i]));
+        }
+    }
+
+    @DisplayName("Test Rows With Name Containing answers concurrent searches with the rows of their fragment")
+    @Test
+    void testRowsWithNameContaining_answersConcurrentSearches() throws Exception {
+        // Set
+        SearchResultCache cache = new SearchResultCache(500);
+        EmployeeSnapshot snapshot = snapshot(1_000);
+        int threads = 8;
+        int searches = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> wrongAnswers = new ArrayList<>();
+
+        // When
+        for (int thread = 0; thread < threads; thread++) {
+            int seed = thread;
+            wrongAnswers.add(executor.submit(() -> {
+                Random random = new Random(seed);
+                start.await();
+                int wrong = 0;
+                for (int i = 0; i < searches; i++) {
+                    // Mostly a few hot fragments, now and then one of many cold ones.
+                    String fragment =
+                            "Employee " + (random.nextInt(10) == 0 ? random.nextInt(1_000) : random.nextInt(5));
+                    if (!Arrays.equals(
+                            snapshot.rowsWithNameContaining(fragment),
+                            cache.rowsWithNameContaining(snapshot, fragment))) {
+                        wrong++;
+                    }
+                }
+                return wrong;
+            }));
+        }
+        start.countDown();
+        int wrong = 0;
+        for (Future<Integer> answer : wrongAnswers) {
+            wrong += answer.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(0, wrong);
+        assertTrue(cache.weight() <= 500, cache.weight() + " rows cached");
+        assertTrue(cache.hitRatio() > 0.5, cache.hitRatio() + " hit ratio");
+    }
+
+    private static EmployeeSnapshot snapshot(int size) {
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(UUID.randomUUID(), "Employee " + i, 1_000 + i, 30, "Engineer", "employee" + i + "@company.com");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UnknownEmployeeIdsTest {
+    private final UnknownEmployeeIds unknownEmployeeIds =
+            new UnknownEmployeeIds(true, Duration.ofMinutes(1), 10, Duration.ofMinutes(1));
+
+    @DisplayName("Test Is Unknown rejects the ids missing from the snapshot and looks up the others")
+    @Test
+    void testIsUnknown_usesTheFilterOfTheSnapshot() {
+        // Set
+        EmployeeSnapshot snapshot = snapshot(1_000);
+        int falsePositives = 0;
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            if (!unknownEmployeeIds.isUnknown(UUID.randomUUID().toString(), Optional.of(snapshot))) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        for (int row = 0; row < snapshot.size(); row++) {
+            assertFalse(unknownEmployeeIds.isUnknown(snapshot.id(row).toString(), Optional.of(snapshot)));
+        }
+        assertTrue(falsePositives < 300, falsePositives + " unknown ids were looked up");
+        assertTrue(unknownEmployeeIds.isUnknown("not-an-id", Optional.empty()));
+        assertFalse(unknownEmployeeIds.isUnknown(UUID.randomUUID().toString(), Optional.empty()));
+    }
+
+    @DisplayName("Test Is Unknown looks up the ids created after the snapshot")
+    @Test
+    void testIsUnknown_looksUpCreatedIds() {
+        // Set
+        EmployeeSnapshot snapshot = snapshot(10);
+        UUID id = UUID.randomUUID();
+        unknownEmployeeIds.rememberUnknown(id.toString());
+
+        // When
+        unknownEmployeeIds.rememberCreated(id);
+
+        // Assert
+        assertFalse(unknownEmployeeIds.isUnknown(id.toString(), Optional.of(snapshot)));
+        assertFalse(unknownEmployeeIds.isUnknown(id.toString(), Optional.empty()));
+    }
+
+    @DisplayName("Test Is Unknown looks up the ids missing from a snapshot older than the maximum age")
+    @Test
+    void testIsUnknown_looksUpIdsMissingFromAnOldSnapshot() {
+        // Set
+        UnknownEmployeeIds trustingNoSnapshot = new UnknownEmployeeIds(true, Duration.ofMinutes(1), 10, Duration.ZERO);
+        EmployeeSnapshot snapshot = snapshot(10);
+        String id = UUID.randomUUID().toString();
+
+        // When
+        boolean unknown = trustingNoSnapshot.isUnknown(id, Optional.of(snapshot));
+
+        // Assert
+        assertFalse(unknown);
+        assertTrue(unknownEmployeeIds.isUnknown(id, Optional.of(snapshot)));
+    }
+
+    @DisplayName("Test Is Unknown forgets the ids not found once their time to live has passed")
+    @Test
+    void testIsUnknown_expiresUnknownIds() {
+        // Set
+        UnknownEmployeeIds expiring = new UnknownEmployeeIds(true, Duration.ZERO, 10, Duration.ofMinutes(1));
+        String id = UUID.randomUUID().toString();
+
+        // When
+        unknownEmployeeIds.rememberUnknown(id);
+        expiring.rememberUnknown(id);
+
+        // Assert
+        assertTrue(unknownEmployeeIds.isUnknown(id, Optional.empty()));
+        assertFalse(expiring.isUnknown(id, Optional.empty()));
+    }
+
+    private static EmployeeSnapshot snapshot(int size) {
+        EmployeeSnapshot.Builder builder = EmployeeSnapshot.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(UUID.randomUUID(), "Employee " + i, 1_000 + i, 30, "Engineer", "employee" + i + "@company.com");
+        }
+        return builder.build();
+    }
+}
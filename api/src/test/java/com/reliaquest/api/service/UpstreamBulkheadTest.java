@@ -0,0 +1,76 @@
+package com.reliaquest.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.reliaquest.api.exceptions.UpstreamUnavailableException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UpstreamBulkheadTest {
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch running = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @DisplayName("Test Call sheds the calls beyond the running and queued ones, and runs the queued one in turn")
+    @Test
+    void testCall_shedsWhenRunningAndQueuedAreFull() throws Exception {
+        // Given
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(1, 1, Duration.ofSeconds(5));
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> bulkhead.call(this::block), callers);
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> bulkhead.call(() -> "queued"), callers);
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        assertThrows(UpstreamUnavailableException.class, () -> bulkhead.call(() -> "shed"));
+        release.countDown();
+
+        // Assert
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        assertEquals("again", bulkhead.call(() -> "again"));
+    }
+
+    @DisplayName("Test Call sheds a queued call once it has waited for the longest wait")
+    @Test
+    void testCall_shedsAfterMaxWait() throws Exception {
+        // Given
+        UpstreamBulkhead bulkhead = new UpstreamBulkhead(1, 1, Duration.ofMillis(20));
+        CompletableFuture.supplyAsync(() -> bulkhead.call(this::block), callers);
+        running.await(5, TimeUnit.SECONDS);
+
+        // When
+        UpstreamUnavailableException exception =
+                assertThrows(UpstreamUnavailableException.class, () -> bulkhead.call(() -> "shed"));
+
+        // Assert
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals(0, bulkhead.queued());
+    }
+
+    private String block() {
+        running.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "first";
+    }
+}
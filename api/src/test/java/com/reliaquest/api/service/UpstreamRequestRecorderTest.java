@@ -0,0 +1,152 @@
+package com.reliaquest.api.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+public class UpstreamRequestRecorderTest {
+    private final UpstreamRequestRecorder recorder = new UpstreamRequestRecorder();
+
+    @DisplayName("Test Intercept records the route, status and bytes of a call once its answer is closed")
+    @Test
+    void testIntercept_recordsTheCall() throws IOException {
+        // Set
+        byte[] body = "{\"data\":null}".getBytes(UTF_8);
+        Path file = Files.createTempFile("upstream-requests", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.reliaquest.api.UpstreamRequest");
+            recording.start();
+            try (ClientHttpResponse response = recorder.intercept(
+                    request(HttpMethod.GET, "/api/v1/employee/de567c35-3067-411b-957f-60f0f487cf9b"),
+                    new byte[0],
+                    (request, requestBody) -> response(HttpStatus.OK, body))) {
+                response.getBody().readAllBytes();
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("GET", event.getString("method"));
+        assertEquals("/api/v1/employee/{id}", event.getString("route"));
+        assertEquals(200, event.getInt("status"));
+        assertEquals(body.length, event.getLong("bytes"));
+        assertTrue(event.getDuration("timeToHeaders").compareTo(event.getDuration()) <= 0);
+    }
+
+    @DisplayName("Test Intercept records a call which got no answer")
+    @Test
+    void testIntercept_recordsAFailedCall() throws IOException {
+        // Set
+        Path file = Files.createTempFile("upstream-requests", ".jfr");
+
+        // When
+        try (Recording recording = new Recording()) {
+            recording.enable("com.reliaquest.api.UpstreamRequest");
+            recording.start();
+            assertThrows(
+                    IOException.class,
+                    () -> recorder.intercept(
+                            request(HttpMethod.DELETE, "/api/v1/employee/1"), new byte[0], (request, requestBody) -> {
+                                throw new IOException("Connection refused");
+                            }));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Assert
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+        assertEquals(1, events.size());
+        assertEquals("DELETE", events.get(0).getString("method"));
+        assertEquals("/api/v1/employee/{id}", events.get(0).getString("route"));
+        assertEquals(0, events.get(0).getInt("status"));
+    }
+
+    @DisplayName("Test Route names the id of an Employee {id} and keeps the other routes")
+    @Test
+    void testRoute_replacesTheEmployeeId() {
+        // Assert
+        assertEquals(
+                "/api/v1/employee/{id}",
+                UpstreamRequestRecorder.route("/api/v1/employee/4d7a1f0e-8b8e-4c57-9f5b-1b1c"));
+        assertEquals("/api/v1/employee/{id}", UpstreamRequestRecorder.route("/api/v1/employee/Jane Doe"));
+        assertEquals("/api/v1/employee", UpstreamRequestRecorder.route("/api/v1/employee"));
+        assertEquals("/api/v1/employee/search", UpstreamRequestRecorder.route("/api/v1/employee/search"));
+        assertEquals("/api/v1/employee/top", UpstreamRequestRecorder.route("/api/v1/employee/top"));
+        assertEquals("/api/v1/employee/highestSalary", UpstreamRequestRecorder.route("/api/v1/employee/highestSalary"));
+        assertEquals("/api/v1/employee/bulk", UpstreamRequestRecorder.route("/api/v1/employee/bulk"));
+    }
+
+    private static HttpRequest request(HttpMethod method, String path) {
+        return new HttpRequest() {
+            @Override
+            public HttpMethod getMethod() {
+                return method;
+            }
+
+            @Override
+            public URI getURI() {
+                return URI.create("http://localhost:8112" + path.replace(" ", "%20"));
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        };
+    }
+
+    private static ClientHttpResponse response(HttpStatus status, byte[] body) {
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return status;
+            }
+
+            @Override
+            public String getStatusText() {
+                return status.getReasonPhrase();
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() {}
+        };
+    }
+}
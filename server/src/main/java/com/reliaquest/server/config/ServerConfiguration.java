@@ -1,11 +1,16 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.jfr.ContinuousRecording;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.web.FaultInjectionFilter;
+import com.reliaquest.server.web.FaultInjectionProperties;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
+import java.io.IOException;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
@@ -14,13 +19,16 @@ import net.datafaker.transformations.Field;
 import net.datafaker.transformations.JavaObjectTransformer;
 import net.datafaker.transformations.Schema;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
 @Configuration
+@EnableConfigurationProperties(FaultInjectionProperties.class)
 public class ServerConfiguration implements WebMvcConfigurer {
 
     public static final String EMAIL_TEMPLATE = "%s@company.com";
@@ -30,14 +38,23 @@ public class ServerConfiguration implements WebMvcConfigurer {
         return new Faker(Locale.getDefault());
     }
 
+    /*
+     * A single shard unless several servers share the employees, see Shard.
+     */
+    @Bean
+    public Shard shard(@Value("${mock.shard.index:0}") int index, @Value("${mock.shard.count:1}") int count) {
+        return new Shard(index, count);
+    }
+
     /*
      * This list is modifiable by design for CRUD operations.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
+    public List<MockEmployee> mockEmployees(
+            Faker faker, Shard shard, @Value("${mock.employees.max:20}") int maxEmployees) {
         final var transformer = new JavaObjectTransformer();
         final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
+                Field.field("id", shard::newId),
                 Field.field("name", () -> faker.name().fullName()),
                 Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
                 Field.field("age", () -> faker.number().numberBetween(16, 70)),
@@ -52,6 +69,22 @@ public class ServerConfiguration implements WebMvcConfigurer {
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    /*
+     * Does nothing unless mock.jfr.enabled is set, as it is by the jfr profile.
+     */
+    @Bean
+    public ContinuousRecording continuousRecording(Environment environment) throws IOException, ParseException {
+        return new ContinuousRecording("mock-employee-api", "mock.jfr", environment);
+    }
+
+    /*
+     * Does nothing unless mock.faults.profile names a fault profile.
+     */
+    @Bean
+    public FaultInjectionFilter faultInjectionFilter(FaultInjectionProperties properties, ObjectMapper objectMapper) {
+        return new FaultInjectionFilter(properties, objectMapper);
+    }
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(new RandomRequestLimitInterceptor());
@@ -0,0 +1,39 @@
+package com.reliaquest.server.config;
+
+import java.util.UUID;
+
+/**
+ * The part of the employees held by this server when the employees are spread over several servers. An employee
+ * belongs to shard {@code floorMod(id.hashCode(), count)}; the API routes by the same rule, so every id this server
+ * hands out is drawn until it falls into its own shard.
+ *
+ * @param index the shard held by this server, from 0
+ * @param count the number of shards
+ */
+public record Shard(int index, int count) {
+
+    public Shard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index %d is not within %d shards.".formatted(index, count));
+        }
+    }
+
+    public static int of(UUID id, int count) {
+        return Math.floorMod(id.hashCode(), count);
+    }
+
+    public boolean owns(UUID id) {
+        return of(id, count) == index;
+    }
+
+    /**
+     * @return a random id belonging to this shard, after {@code count} draws on average.
+     */
+    public UUID newId() {
+        UUID id = UUID.randomUUID();
+        while (!owns(id)) {
+            id = UUID.randomUUID();
+        }
+        return id;
+    }
+}
@@ -1,22 +1,29 @@
 package com.reliaquest.server.controller;
 
 import com.reliaquest.server.model.CreateMockEmployeeInput;
+import com.reliaquest.server.model.CreateMockEmployeesInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeFields;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.service.EncodedEmployees;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -26,9 +33,44 @@ public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
 
+    /**
+     * Answers with the response body serialized after the last change to the employees, gzip compressed when the
+     * client accepts it, written out as a single copy of the bytes.
+     *
+     * @param fields comma separated fields the employees are answered with, such as {@code id,name}; all of them
+     * when absent
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<byte[]> getEmployees(
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedEmployees encoded = mockEmployeeService.getEncodedEmployees(MockEmployeeFields.parse(fields));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+        }
+        return response.body(encoded.identity());
+    }
+
+    @GetMapping("/search")
+    public Response<MockEmployeeFields.Projection> searchEmployees(
+            @RequestParam("name") String name, @RequestParam(name = "fields", required = false) String fields) {
+        return Response.handledWith(MockEmployeeFields.parse(fields).project(mockEmployeeService.searchByName(name)));
+    }
+
+    @GetMapping("/top")
+    public Response<MockEmployeeFields.Projection> getTopEmployeesBySalary(
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            @RequestParam(name = "fields", required = false) String fields) {
+        return Response.handledWith(
+                MockEmployeeFields.parse(fields).project(mockEmployeeService.findTopBySalary(limit)));
+    }
+
+    @GetMapping("/highestSalary")
+    public Response<Integer> getHighestSalary() {
+        return Response.handledWith(mockEmployeeService.findHighestSalary().orElse(null));
     }
 
     @GetMapping("/{id}")
@@ -44,8 +86,33 @@ public class MockEmployeeController {
         return Response.handledWith(mockEmployeeService.create(input));
     }
 
+    @PostMapping("/bulk")
+    public Response<List<MockEmployee>> createEmployees(@Valid @RequestBody CreateMockEmployeesInput input) {
+        return Response.handledWith(mockEmployeeService.create(input.getEmployees()));
+    }
+
     @DeleteMapping()
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Response<Boolean>> deleteEmployee(@PathVariable("id") UUID uuid) {
+        return mockEmployeeService.delete(uuid)
+                ? ResponseEntity.ok(Response.handledWith(true))
+                : ResponseEntity.status(HttpStatus.NOT_FOUND).body(Response.handledWith(false));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            if ("gzip".equalsIgnoreCase(parameters[0].trim())) {
+                return parameters.length == 1 || !parameters[1].trim().matches("q=0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
 }
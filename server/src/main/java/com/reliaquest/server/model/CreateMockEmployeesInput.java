@@ -0,0 +1,13 @@
+package com.reliaquest.server.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Data;
+
+@Data
+public class CreateMockEmployeesInput {
+
+    @NotEmpty
+    private List<@Valid CreateMockEmployeeInput> employees;
+}
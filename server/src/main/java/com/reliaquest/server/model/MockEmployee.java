@@ -22,8 +22,12 @@ public class MockEmployee {
     private String email;
 
     public static MockEmployee from(@NonNull String email, @NonNull CreateMockEmployeeInput input) {
+        return from(UUID.randomUUID(), email, input);
+    }
+
+    public static MockEmployee from(@NonNull UUID id, @NonNull String email, @NonNull CreateMockEmployeeInput input) {
         return MockEmployee.builder()
-                .id(UUID.randomUUID())
+                .id(id)
                 .email(email)
                 .name(input.getName())
                 .salary(input.getSalary())
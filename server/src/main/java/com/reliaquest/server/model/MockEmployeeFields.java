@@ -0,0 +1,175 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a {@link MockEmployee} asked for with the {@code fields} request parameter, such as {@code id,name}.
+ * Every one of the 64 sets is built once with the writers of its fields, which write the employees field by field,
+ * under the same names and in the same order as the serializer of {@link MockEmployee} does.
+ */
+public final class MockEmployeeFields {
+    private static final MockEmployeeFields[] SETS = new MockEmployeeFields[1 << Field.values().length];
+
+    static {
+        for (int mask = 0; mask < SETS.length; mask++) {
+            SETS[mask] = new MockEmployeeFields(mask);
+        }
+    }
+
+    public static final MockEmployeeFields ALL = SETS[SETS.length - 1];
+
+    private final int mask;
+    private final Field[] fields;
+
+    private MockEmployeeFields(int mask) {
+        this.mask = mask;
+        this.fields = Arrays.stream(Field.values())
+                .filter(field -> (mask & 1 << field.ordinal()) != 0)
+                .toArray(Field[]::new);
+    }
+
+    /**
+     * @param fields comma separated names of the fields, every field when null or blank
+     * @throws IllegalArgumentException when a name is not one of the fields.
+     */
+    public static MockEmployeeFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            mask |= 1 << Field.named(name.trim()).ordinal();
+        }
+        return SETS[mask];
+    }
+
+    /**
+     * @return a number from 0 to 63 telling the sets apart.
+     */
+    public int index() {
+        return mask;
+    }
+
+    public Projection project(List<MockEmployee> employees) {
+        return new Projection(employees, this);
+    }
+
+    /**
+     * @return the set as the value of a {@code fields} request parameter.
+     */
+    @Override
+    public String toString() {
+        return Arrays.stream(fields)
+                .map(field -> field.name().toLowerCase(Locale.ROOT))
+                .collect(Collectors.joining(","));
+    }
+
+    private void write(MockEmployee employee, JsonGenerator generator) throws IOException {
+        generator.writeStartObject(employee);
+        for (Field field : fields) {
+            generator.writeFieldName(field.jsonName);
+            field.writeValue(employee, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    private enum Field {
+        ID("id") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                UUID id = employee.getId();
+                generator.writeString(id == null ? null : id.toString());
+            }
+        },
+        NAME("employee_name") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.getName());
+            }
+        },
+        SALARY("employee_salary") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                writeNumber(employee.getSalary(), generator);
+            }
+        },
+        AGE("employee_age") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                writeNumber(employee.getAge(), generator);
+            }
+        },
+        TITLE("employee_title") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.getTitle());
+            }
+        },
+        EMAIL("employee_email") {
+            @Override
+            void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException {
+                generator.writeString(employee.getEmail());
+            }
+        };
+
+        private final SerializableString jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = new SerializedString(jsonName);
+        }
+
+        abstract void writeValue(MockEmployee employee, JsonGenerator generator) throws IOException;
+
+        private static Field named(String name) {
+            for (Field field : values()) {
+                if (field.name().toLowerCase(Locale.ROOT).equals(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("There is no employee field %s.".formatted(name));
+        }
+
+        private static void writeNumber(Integer value, JsonGenerator generator) throws IOException {
+            if (value == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(value);
+            }
+        }
+    }
+
+    /**
+     * Employees written with only the fields of the set.
+     */
+    @JsonSerialize(using = ProjectionSerializer.class)
+    public record Projection(List<MockEmployee> employees, MockEmployeeFields fields) {}
+
+    static class ProjectionSerializer extends StdSerializer<Projection> {
+
+        ProjectionSerializer() {
+            super(Projection.class);
+        }
+
+        @Override
+        public void serialize(Projection projection, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            List<MockEmployee> employees = projection.employees();
+            generator.writeStartArray(employees, employees.size());
+            for (MockEmployee employee : employees) {
+                projection.fields().write(employee, generator);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
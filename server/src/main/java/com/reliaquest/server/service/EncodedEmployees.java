@@ -0,0 +1,36 @@
+package com.reliaquest.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body serialized once, kept both as is and gzip compressed.
+ *
+ * @param version the version of the employees it was serialized from
+ * @param identity the JSON bytes
+ * @param gzip the JSON bytes, gzip compressed
+ */
+public record EncodedEmployees(long version, byte[] identity, byte[] gzip) {
+
+    static EncodedEmployees encode(long version, ObjectMapper objectMapper, Object body) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4 + 64);
+            // The fastest level still shrinks the repetitive JSON about four times, in half the default's time.
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {
+                {
+                    def.setLevel(Deflater.BEST_SPEED);
+                }
+            }) {
+                gzip.write(identity);
+            }
+            return new EncodedEmployees(version, identity, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.reliaquest.server.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Package protected Java Flight Recorder events of the hot paths of the mock server, written only while a recording
+ * is running, such as the continuous one of the {@code jfr} profile.
+ */
+final class FlightEvents {
+    private static final String CATEGORY = "ReliaQuest";
+    private static final String APPLICATION = "Mock Employee Server";
+
+    private FlightEvents() {}
+
+    @Name("com.reliaquest.server.EmployeesEncode")
+    @Label("Employees Encode")
+    @Description("Serializing and compressing the list of every employee for a set of fields")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class EmployeesEncode extends Event {
+        @Label("Fields")
+        String fields;
+
+        @Label("Rows")
+        int rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Compressed Bytes")
+        @DataAmount
+        long compressedBytes;
+
+        @Label("Version")
+        long version;
+    }
+
+    @Name("com.reliaquest.server.Search")
+    @Label("Search")
+    @Description("A search of the employees by name fragment")
+    @Category({CATEGORY, APPLICATION})
+    @StackTrace(false)
+    static final class Search extends Event {
+        @Label("Fragment Length")
+        int fragmentLength;
+
+        @Label("Hits")
+        int hits;
+    }
+}
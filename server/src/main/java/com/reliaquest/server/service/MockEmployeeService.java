@@ -1,58 +1,213 @@
 package com.reliaquest.server.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.server.config.ServerConfiguration;
+import com.reliaquest.server.config.Shard;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeeFields;
+import com.reliaquest.server.model.Response;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MockEmployeeService {
 
     private final Faker faker;
 
+    private final Shard shard;
+
     @Getter
     private final List<MockEmployee> mockEmployees;
 
+    /*
+     * Index over mockEmployees by id, kept in step with the list on every create and delete.
+     */
+    private final Map<UUID, MockEmployee> mockEmployeesById = new ConcurrentHashMap<>();
+
+    /*
+     * Indexes serving the name search and salary queries without walking mockEmployees.
+     */
+    private final NameTrigramIndex nameIndex = new NameTrigramIndex();
+
+    /*
+     * Position of every employee in mockEmployees, growing with every create, so the indexes answer in the order of the
+     * list and break ties the way the rows of the GET-all response do.
+     */
+    private final Map<UUID, Long> positionsById = new ConcurrentHashMap<>();
+
+    private long nextPosition;
+
+    private final Comparator<MockEmployee> inListOrder =
+            Comparator.comparingLong(mockEmployee -> positionsById.getOrDefault(mockEmployee.getId(), Long.MAX_VALUE));
+
+    private final NavigableSet<MockEmployee> mockEmployeesBySalary = new ConcurrentSkipListSet<>(
+            Comparator.comparing(MockEmployee::getSalary, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+                    .thenComparing(inListOrder));
+
+    /*
+     * The encoded GET-all responses per set of fields, valid while version is unchanged; every create and delete
+     * moves version on.
+     */
+    private final ObjectMapper objectMapper;
+
+    private long version;
+
+    private final AtomicReferenceArray<EncodedEmployees> encodedEmployees =
+            new AtomicReferenceArray<>(MockEmployeeFields.ALL.index() + 1);
+
+    public MockEmployeeService(Faker faker, Shard shard, List<MockEmployee> mockEmployees, ObjectMapper objectMapper) {
+        this.faker = faker;
+        this.shard = shard;
+        this.mockEmployees = mockEmployees;
+        this.objectMapper = objectMapper;
+        mockEmployees.stream()
+                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId()))
+                .forEach(this::index);
+    }
+
+    /**
+     * @return the response listing every employee with only the given fields, serialized once per version of the
+     * employees and set of fields and kept both as is and gzip compressed, so repeated reads only copy bytes.
+     */
+    public EncodedEmployees getEncodedEmployees(@NonNull MockEmployeeFields fields) {
+        EncodedEmployees encoded = encodedEmployees.get(fields.index());
+        if (encoded != null) {
+            return encoded;
+        }
+        long encodedVersion;
+        List<MockEmployee> employees;
+        synchronized (this) {
+            encodedVersion = version;
+            employees = List.copyOf(mockEmployees);
+        }
+        FlightEvents.EmployeesEncode event = new FlightEvents.EmployeesEncode();
+        event.begin();
+        encoded =
+                EncodedEmployees.encode(encodedVersion, objectMapper, Response.handledWith(fields.project(employees)));
+        event.fields = fields.toString();
+        event.rows = employees.size();
+        event.bytes = encoded.identity().length;
+        event.compressedBytes = encoded.gzip().length;
+        event.version = encodedVersion;
+        event.commit();
+        synchronized (this) {
+            // A create or delete while encoding made this encoding stale already; it is still a consistent answer.
+            if (version == encodedVersion) {
+                encodedEmployees.set(fields.index(), encoded);
+            }
+        }
+        return encoded;
+    }
+
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return Optional.ofNullable(mockEmployeesById.get(uuid));
+    }
+
+    public List<MockEmployee> searchByName(@NonNull String fragment) {
+        FlightEvents.Search event = new FlightEvents.Search();
+        event.begin();
+        List<MockEmployee> found = nameIndex.search(fragment, mockEmployeesById).stream()
+                .sorted(inListOrder)
+                .toList();
+        event.fragmentLength = fragment.length();
+        event.hits = found.size();
+        event.commit();
+        return found;
     }
 
-    public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
+    public List<MockEmployee> findTopBySalary(int limit) {
+        return mockEmployeesBySalary.stream()
+                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getSalary()))
+                .limit(Math.max(limit, 0))
+                .toList();
+    }
+
+    public Optional<Integer> findHighestSalary() {
+        return findTopBySalary(1).stream().map(MockEmployee::getSalary).findFirst();
+    }
+
+    public synchronized MockEmployee create(@NonNull CreateMockEmployeeInput input) {
         final var mockEmployee = MockEmployee.from(
+                shard.newId(),
                 ServerConfiguration.EMAIL_TEMPLATE.formatted(
                         faker.twitter().userName().toLowerCase()),
                 input);
         mockEmployees.add(mockEmployee);
+        index(mockEmployee);
+        changed();
         log.debug("Added employee: {}", mockEmployee);
         return mockEmployee;
     }
 
-    public boolean delete(@NonNull DeleteMockEmployeeInput input) {
+    /**
+     * Creates the employees in one go, in the order of the inputs.
+     */
+    public synchronized List<MockEmployee> create(@NonNull List<CreateMockEmployeeInput> inputs) {
+        return inputs.stream().map(this::create).toList();
+    }
+
+    public synchronized boolean delete(@NonNull DeleteMockEmployeeInput input) {
         final var mockEmployee = mockEmployees.stream()
                 .filter(employee -> Objects.nonNull(employee.getName())
                         && employee.getName().equalsIgnoreCase(input.getName()))
                 .findFirst();
         if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
+            remove(mockEmployee.get());
+            return true;
+        }
+
+        return false;
+    }
+
+    public synchronized boolean delete(@NonNull UUID uuid) {
+        final var mockEmployee = mockEmployeesById.get(uuid);
+        if (mockEmployee != null) {
+            remove(mockEmployee);
             return true;
         }
 
         return false;
     }
+
+    private void index(MockEmployee mockEmployee) {
+        positionsById.put(mockEmployee.getId(), nextPosition++);
+        mockEmployeesById.put(mockEmployee.getId(), mockEmployee);
+        mockEmployeesBySalary.add(mockEmployee);
+        nameIndex.add(mockEmployee);
+    }
+
+    private void remove(MockEmployee mockEmployee) {
+        mockEmployees.remove(mockEmployee);
+        if (Objects.nonNull(mockEmployee.getId())) {
+            mockEmployeesById.remove(mockEmployee.getId());
+            mockEmployeesBySalary.remove(mockEmployee);
+            nameIndex.remove(mockEmployee);
+            positionsById.remove(mockEmployee.getId());
+        }
+        changed();
+        log.debug("Removed employee: {}", mockEmployee);
+    }
+
+    private void changed() {
+        version++;
+        for (int i = 0; i < encodedEmployees.length(); i++) {
+            encodedEmployees.set(i, null);
+        }
+    }
 }
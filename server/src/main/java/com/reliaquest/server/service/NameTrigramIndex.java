@@ -0,0 +1,79 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Case-sensitive substring index over employee names. Every name is split into its overlapping three character
+ * sequences; a fragment of three or more characters only has to be checked against the employees holding all of its
+ * trigrams, starting from the rarest one. Shorter fragments fall back to checking every employee.
+ */
+class NameTrigramIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<UUID>> idsByTrigram = new ConcurrentHashMap<>();
+
+    void add(MockEmployee mockEmployee) {
+        trigrams(mockEmployee.getName()).forEach(trigram -> idsByTrigram
+                .computeIfAbsent(trigram, ignored -> ConcurrentHashMap.newKeySet())
+                .add(mockEmployee.getId()));
+    }
+
+    void remove(MockEmployee mockEmployee) {
+        trigrams(mockEmployee.getName())
+                .forEach(trigram -> idsByTrigram.computeIfPresent(trigram, (key, ids) -> {
+                    ids.remove(mockEmployee.getId());
+                    return ids.isEmpty() ? null : ids;
+                }));
+    }
+
+    /**
+     * @return the employees whose name contains the fragment, in no particular order, looked up through the index when
+     * the fragment is long enough to have trigrams.
+     */
+    List<MockEmployee> search(String fragment, Map<UUID, MockEmployee> mockEmployeesById) {
+        Set<String> trigrams = trigrams(fragment);
+        if (trigrams.isEmpty()) {
+            return mockEmployeesById.values().stream()
+                    .filter(mockEmployee -> matches(mockEmployee, fragment))
+                    .toList();
+        }
+        List<Set<UUID>> postings = new ArrayList<>(trigrams.size());
+        for (String trigram : trigrams) {
+            Set<UUID> ids = idsByTrigram.get(trigram);
+            if (ids == null) {
+                return List.of();
+            }
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        return postings.get(0).stream()
+                .filter(id -> postings.stream().skip(1).allMatch(ids -> ids.contains(id)))
+                .map(mockEmployeesById::get)
+                .filter(mockEmployee -> mockEmployee != null && matches(mockEmployee, fragment))
+                .toList();
+    }
+
+    private static boolean matches(MockEmployee mockEmployee, String fragment) {
+        return Objects.nonNull(mockEmployee.getName()) && mockEmployee.getName().contains(fragment);
+    }
+
+    private static Set<String> trigrams(String value) {
+        if (value == null || value.length() < GRAM) {
+            return Set.of();
+        }
+        return IntStream.rangeClosed(0, value.length() - GRAM)
+                .mapToObj(start -> value.substring(start, start + GRAM))
+                .collect(Collectors.toSet());
+    }
+}
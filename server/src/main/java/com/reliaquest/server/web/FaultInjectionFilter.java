@@ -0,0 +1,170 @@
+package com.reliaquest.server.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.Response;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Injects the faults of the {@link FaultProfile} named by {@code mock.faults.profile} into the answers of the server:
+ * latency, error answers, answers written out slowly and connections cut off halfway through an answer.
+ * <p>
+ * Every fault is drawn from one random generator seeded with {@code mock.faults.seed}, always in the same order, so
+ * the same requests sent one after the other meet the same faults from one run to the next.
+ */
+@Slf4j
+public class FaultInjectionFilter extends OncePerRequestFilter {
+    private static final AntPathMatcher PATHS = new AntPathMatcher();
+    private static final double PARETO_SHAPE = 1.5;
+
+    private final FaultProfile profile;
+    private final Random random;
+    private final AtomicInteger[] burstsLeft;
+    private final ObjectMapper objectMapper;
+
+    public FaultInjectionFilter(FaultInjectionProperties properties, ObjectMapper objectMapper) {
+        String name = properties.profile();
+        if (name == null || name.isBlank()) {
+            this.profile = null;
+        } else {
+            this.profile = properties.profiles().get(name);
+            if (profile == null) {
+                throw new IllegalArgumentException("Fault profile %s is not one of %s."
+                        .formatted(name, properties.profiles().keySet()));
+            }
+        }
+        long seed = properties.seed() != null
+                ? properties.seed()
+                : RandomGenerator.getDefault().nextLong();
+        this.random = new Random(seed);
+        this.burstsLeft = profile == null
+                ? new AtomicInteger[0]
+                : profile.errors().stream().map(rule -> new AtomicInteger()).toArray(AtomicInteger[]::new);
+        this.objectMapper = objectMapper;
+        if (profile != null) {
+            log.info("Injecting the faults of profile {} with seed {}.", name, seed);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return profile == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration delay = delay(profile.latency());
+        FaultProfile.ErrorRule error = error(request);
+        boolean reset = profile.resets() != null
+                && random.nextDouble() < profile.resets().rate();
+        boolean slow = profile.streaming() != null
+                && random.nextDouble() < profile.streaming().rate();
+        sleep(delay);
+        if (error != null) {
+            log.debug("Answering {} to {} {}.", error.status(), request.getMethod(), request.getRequestURI());
+            writeError(response, error);
+            return;
+        }
+        if (!reset && !slow) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ContentCachingResponseWrapper answer = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, answer);
+        byte[] body = answer.getContentAsByteArray();
+        response.setContentLength(body.length);
+        ServletOutputStream out = response.getOutputStream();
+        if (reset) {
+            log.debug("Cutting off the answer to {} {}.", request.getMethod(), request.getRequestURI());
+            out.write(body, 0, body.length / 2);
+            out.flush();
+            // Thrown once the answer is committed, it makes the server close the connection mid-answer.
+            throw new IOException("Injected connection reset.");
+        }
+        int chunkSize = profile.streaming().chunkSize();
+        for (int offset = 0; offset < body.length; offset += chunkSize) {
+            out.write(body, offset, Math.min(chunkSize, body.length - offset));
+            out.flush();
+            sleep(profile.streaming().chunkDelay());
+        }
+    }
+
+    private Duration delay(FaultProfile.Latency latency) {
+        if (latency == null) {
+            return Duration.ZERO;
+        }
+        double mean = latency.mean().toNanos();
+        double sample =
+                switch (latency.distribution()) {
+                    case FIXED -> mean;
+                    case UNIFORM -> 2 * mean * random.nextDouble();
+                    case EXPONENTIAL -> -mean * Math.log(1 - random.nextDouble());
+                    case PARETO -> mean
+                            * (PARETO_SHAPE - 1)
+                            / PARETO_SHAPE
+                            / Math.pow(1 - random.nextDouble(), 1 / PARETO_SHAPE);
+                };
+        Duration delay = latency.fixed().plusNanos((long) sample);
+        return latency.max() != null && delay.compareTo(latency.max()) > 0 ? latency.max() : delay;
+    }
+
+    /**
+     * @return the rule to fail the request with, if any; only the first rule matching the request is drawn.
+     */
+    private FaultProfile.ErrorRule error(HttpServletRequest request) {
+        for (int i = 0; i < profile.errors().size(); i++) {
+            FaultProfile.ErrorRule rule = profile.errors().get(i);
+            if ((rule.method() == null || rule.method().equalsIgnoreCase(request.getMethod()))
+                    && PATHS.match(rule.path(), request.getRequestURI())) {
+                if (burstsLeft[i].getAndUpdate(left -> Math.max(left - 1, 0)) > 0) {
+                    return rule;
+                }
+                if (random.nextDouble() < rule.rate()) {
+                    burstsLeft[i].set(rule.burst() - 1);
+                    return rule;
+                }
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private void writeError(HttpServletResponse response, FaultProfile.ErrorRule rule) throws IOException {
+        response.setStatus(rule.status());
+        if (rule.retryAfter() != null) {
+            response.setHeader(
+                    HttpHeaders.RETRY_AFTER, String.valueOf(rule.retryAfter().toSeconds()));
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Response.error("Injected fault."));
+    }
+
+    private static void sleep(Duration duration) throws IOException {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while injecting a fault.");
+        }
+    }
+}
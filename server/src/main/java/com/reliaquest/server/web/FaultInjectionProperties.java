@@ -0,0 +1,17 @@
+package com.reliaquest.server.web;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * @param profile the name of the fault profile in effect, none when blank
+ * @param seed the seed of the faults drawn, so a run can be repeated exactly; random when absent
+ * @param profiles the fault profiles by name
+ */
+@ConfigurationProperties("mock.faults")
+public record FaultInjectionProperties(String profile, Long seed, Map<String, FaultProfile> profiles) {
+
+    public FaultInjectionProperties {
+        profiles = profiles == null ? Map.of() : Map.copyOf(profiles);
+    }
+}
@@ -0,0 +1,68 @@
+package com.reliaquest.server.web;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The faults the server injects into its answers, all of them optional.
+ *
+ * @param latency the delay added before every request is handled
+ * @param errors the error answers sent instead of handling the request, the first matching rule applying
+ * @param streaming the share of the answers written out in slow chunks
+ * @param resets the share of the answers cut off halfway, their connection closed
+ */
+public record FaultProfile(Latency latency, List<ErrorRule> errors, Streaming streaming, Resets resets) {
+
+    public FaultProfile {
+        errors = errors == null ? List.of() : List.copyOf(errors);
+    }
+
+    /**
+     * A delay of {@code fixed} plus a sample of the distribution with the given mean, at most {@code max}.
+     */
+    public record Latency(Duration fixed, Duration mean, Distribution distribution, Duration max) {
+
+        public Latency {
+            fixed = fixed == null ? Duration.ZERO : fixed;
+            mean = mean == null ? Duration.ZERO : mean;
+            distribution = distribution == null ? Distribution.FIXED : distribution;
+        }
+    }
+
+    public enum Distribution {
+        FIXED,
+        UNIFORM,
+        EXPONENTIAL,
+        /**
+         * Heavy tailed, with a shape of 1.5: most delays are short and a few are many times the mean.
+         */
+        PARETO
+    }
+
+    /**
+     * Answers {@code status} to {@code rate} of the requests matching the method and Ant style path; each error
+     * starts a burst, the next {@code burst - 1} matching requests failing as well.
+     */
+    public record ErrorRule(
+            String method, String path, double rate, Integer status, Integer burst, Duration retryAfter) {
+
+        public ErrorRule {
+            path = path == null ? "/**" : path;
+            status = status == null ? 500 : status;
+            burst = burst == null ? 1 : Math.max(burst, 1);
+        }
+    }
+
+    /**
+     * Writes {@code rate} of the answers {@code chunk-size} bytes at a time, pausing {@code chunk-delay} after each.
+     */
+    public record Streaming(double rate, Integer chunkSize, Duration chunkDelay) {
+
+        public Streaming {
+            chunkSize = chunkSize == null ? 8192 : Math.max(chunkSize, 1);
+            chunkDelay = chunkDelay == null ? Duration.ZERO : chunkDelay;
+        }
+    }
+
+    public record Resets(double rate) {}
+}
@@ -0,0 +1,54 @@
+package com.reliaquest.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A Java Flight Recording kept running while {@code <prefix>.enabled} is set, as it is by the {@code jfr} profile of
+ * both applications. It uses the {@code settings} of the JDK, {@code default} being made for production at about 1%
+ * overhead, which also record the events of the application, and keeps the last {@code max-age} of them on disk, up
+ * to {@code max-size}. The recording is written to {@code path}, by default {@code <name>.jfr}, when the application
+ * stops, and can be dumped at any time with {@code jcmd <pid> JFR.dump name=<name> filename=<file>}.
+ */
+@Slf4j
+public class ContinuousRecording implements DisposableBean {
+    private final Recording recording;
+
+    public ContinuousRecording(String name, String prefix, Environment environment) throws IOException, ParseException {
+        if (!environment.getProperty(prefix + ".enabled", Boolean.class, false)) {
+            this.recording = null;
+            return;
+        }
+        String settings = environment.getProperty(prefix + ".settings", "default");
+        Duration maxAge = environment.getProperty(prefix + ".max-age", Duration.class, Duration.ofHours(6));
+        DataSize maxSize = environment.getProperty(prefix + ".max-size", DataSize.class, DataSize.ofMegabytes(250));
+        this.recording = new Recording(Configuration.getConfiguration(settings));
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDestination(Path.of(environment.getProperty(prefix + ".path", name + ".jfr")));
+        recording.setDumpOnExit(true);
+        recording.start();
+        log.info("Recording {} with the {} settings, keeping the last {} up to {}.", name, settings, maxAge, maxSize);
+    }
+
+    /**
+     * Stops the recording, which writes it to its path.
+     */
+    @Override
+    public void destroy() {
+        if (recording != null) {
+            recording.stop();
+            recording.close();
+        }
+    }
+}